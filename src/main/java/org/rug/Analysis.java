@@ -1,10 +1,13 @@
 package org.rug;
 
 import org.rug.args.Args;
+import org.rug.data.characteristics.comps.ChangeMetrics;
+import org.rug.data.characteristics.comps.JarSourceCodeRetriever;
 import org.rug.data.project.*;
 import org.rug.data.project.AbstractProject.Type;
 import org.rug.persistence.*;
 import org.rug.runners.*;
+import org.rug.statefulness.ArcanManifest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,33 +39,31 @@ public class Analysis {
 
     private void init() throws IOException{
         if (project == null){
+            ArcanDependencyGraphParser.setSmellFilter(args.getSmellTypes(), args.getSmellLevels());
+            JarSourceCodeRetriever.setDecompilationCacheDir(args.useCache() ? args.getDecompilationCacheDir().toPath() : null);
+            ChangeMetrics.setDiffCacheDir(args.useCache() ? args.getDiffCacheDir().toPath() : null);
             project = getProject();
             if (isGraphMLProject()){
                 project.addGraphMLfiles(args.getHomeProjectDirectory());
-            }else if (args.runArcan()) {
-                var arcan = GitArcanRunner.newGitRunner(project, args);
-                runners.add(arcan);
             }else if (args.project.isJar) {
                 project.addSourceDirectory(args.getHomeProjectDirectory());
-                var outputDir = args.getArcanOutDir();
-                project.forEach(version -> {
-                    Path outputDirVers = Paths.get(outputDir, version.getVersionString());
-                    if (outputDirVers.toFile().mkdirs() && version instanceof Version) {
-                        var arcan = new ArcanRunner(args.getArcanJarFile(), (Version) version,
-                                outputDirVers.toString(), project.isFolderOfFoldersOfSourcesProject(), false);
-                        arcan.setHomeDir(args.getHomeProjectDirectory());
-                        arcan.inheritOutput(args.showArcanOutput);
-                        runners.add(arcan);
-                    }
-                });
+                if (args.runArcan()) {
+                    runners.add(newArcanPool());
+                }
                 args.adjustProjDirToArcanOutput();
                 project.addGraphMLfiles(args.getHomeProjectDirectory());
+            }else if (args.runArcan()) {
+                var arcan = GitArcanRunner.newGitRunner(project, args);
+                runners.add(arcan);
             } else {
                 throw new IllegalArgumentException("Cannot parse project files.");
             }
 
             if (args.runTracker()){
-                runners.add(new TrackASRunner(project, args.trackNonConsecutiveVersions));
+                var tracker = new TrackASRunner(project, args.trackNonConsecutiveVersions,
+                        args.useCache() ? args.getAnalysisCacheDir() : null);
+                tracker.setSelectedCharacteristics(args.selectedCharacteristics);
+                runners.add(tracker);
 
                 if (args.similarityScores) {
                     PersistenceHub.register(new SmellSimilarityDataGenerator(args.getSimilarityScoreFile()));
@@ -88,6 +89,46 @@ public class Analysis {
         }
     }
 
+    /**
+     * Creates the pool executing Arcan on the versions of a JAR project that were not analysed yet,
+     * or whose inputs changed since they were analysed.
+     * @return the pool of Arcan runners.
+     * @throws IOException if the Arcan JAR or the inputs of a version cannot be read.
+     */
+    private ToolRunnerPool newArcanPool() throws IOException {
+        var outputDir = args.getArcanOutDir();
+        var manifest = args.useCache() ? new ArcanManifest(Paths.get(outputDir)) : null;
+        var arcanHash = ArcanManifest.hashOf(Paths.get(args.getArcanJarFile()));
+        var pool = new ToolRunnerPool("arcan", args.arcanJobs, args.getArcanTimeout(), args.arcanRetries);
+        for (var version : project) {
+            if (!(version instanceof Version)) {
+                continue;
+            }
+            var input = version.getSourceCodePath().getFileName().toString();
+            if (version.getGraphMLPath() == null) {
+                var name = Files.isDirectory(version.getSourceCodePath()) || !input.contains(".")
+                        ? input : input.substring(0, input.lastIndexOf('.'));
+                ((Version) version).setGraphMLPath(Paths.get(outputDir, name + ".graphml"));
+            }
+            var inputHash = ArcanManifest.hashOf(arcanHash, ArcanManifest.hashOf(version.getSourceCodePath()));
+            if (manifest != null && manifest.isUpToDate(input, inputHash)) {
+                logger.info("Skipping Arcan on version {}, already analysed.", version.getVersionString());
+                continue;
+            }
+            Path outputDirVers = Paths.get(outputDir, version.getVersionString());
+            Files.createDirectories(outputDirVers);
+            var arcan = new ArcanRunner(args.getArcanJarFile(), (Version) version,
+                    outputDirVers.toString(), project.isFolderOfFoldersOfSourcesProject(), false,
+                    pool.getMaxHeapMB());
+            arcan.inheritOutput(args.showArcanOutput);
+            if (manifest != null) {
+                arcan.setManifest(manifest, input, inputHash);
+            }
+            pool.add(arcan);
+        }
+        return pool;
+    }
+
     public IProject getProject() throws IOException {
         if (project == null) {
             Type pType;
@@ -2,10 +2,16 @@ package org.rug.args;
 
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParametersDelegate;
+import org.rug.data.smells.ArchitecturalSmell;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 public class Args {
 
@@ -21,6 +27,15 @@ public class Args {
     @Parameter(names = {"-runArcan", "-rA"}, description = "Analyse files with Arcan. This parameter shall point to the JAR containing Arcan, without any parameters. Ex. ./path/to/Arcan.jar.")
     private String runArcan = null;
 
+    @Parameter(names = {"-arcanJobs", "-aJ"}, description = "The number of Arcan processes analysing the versions of a project concurrently. By default, it is based on the cores and the physical memory of the machine. The heap of every process is based on the memory available to each.")
+    public int arcanJobs = 0;
+
+    @Parameter(names = {"-arcanTimeout", "-aT"}, description = "The number of minutes after which the Arcan process analysing a version is stopped and considered failed. Processes are never stopped by default.")
+    public int arcanTimeout = 0;
+
+    @Parameter(names = {"-arcanRetries", "-aR"}, description = "The number of times the analysis of a version is executed again if Arcan fails or is stopped.")
+    public int arcanRetries = 1;
+
     @Parameter(names = {"-doNotRunTracker", "-dRT"}, description = "Do not execute the tracking algorithm runner.")
     private boolean disableTrackerRunner = false;
 
@@ -42,6 +57,18 @@ public class Args {
     @Parameter(names = {"-enableNonConsec", "-eNC"}, description = "Whether to track smells across non consecutive versions. This allows to track re-appeared smells, denoted by a special edge in the output track graph.")
     public boolean trackNonConsecutiveVersions = false;
 
+    @Parameter(names = {"-smellTypes", "-sT"}, description = "Restrict the analysis to the given comma-separated smell types (e.g. CD,HL or cyclicDep,hubLikeDep). Smells of other types are neither built, nor tracked, nor written. All types are analysed by default.", converter = SmellTypeConverter.class)
+    public List<ArchitecturalSmell.Type> smellTypes = new ArrayList<>();
+
+    @Parameter(names = {"-smellLevels", "-sL"}, description = "Restrict the analysis to smells affecting the given comma-separated levels (class, package, cfile, component). All levels are analysed by default.", converter = SmellLevelConverter.class)
+    public List<ArchitecturalSmell.Level> smellLevels = new ArrayList<>();
+
+    @Parameter(names = {"-selectCharacteristics", "-sC"}, description = "Compute the given comma-separated characteristics (e.g. pageRankMax,avrgInternalPathLength) even if they are not written by the selected outputs. Characteristics analysing the whole dependency graph are otherwise computed only with -pC.")
+    public List<String> selectedCharacteristics = new ArrayList<>();
+
+    @Parameter(names = {"-noCache", "-nC"}, description = "Do not restore the results of the versions analysed by previous executions (smells, smell and component characteristics, decompiled classes, diffs between commits, versions analysed by Arcan), and do not save the results of this execution. Results are saved within the outputDir directory.")
+    private boolean disableCache = false;
+
     @Parameter(names = {"--help", "-h", "-help", "-?"}, help = true)
     public boolean help;
 
@@ -49,6 +76,24 @@ public class Args {
 
     public boolean runProjectSizes(){ return runProjectSizes; }
 
+    public boolean useCache(){ return !disableCache; }
+
+    /**
+     * Returns the smell types selected for the analysis.
+     * @return the selected types, or all the types if none was selected.
+     */
+    public Set<ArchitecturalSmell.Type> getSmellTypes(){
+        return smellTypes.isEmpty() ? EnumSet.allOf(ArchitecturalSmell.Type.class) : EnumSet.copyOf(smellTypes);
+    }
+
+    /**
+     * Returns the smell levels selected for the analysis.
+     * @return the selected levels, or all the levels if none was selected.
+     */
+    public Set<ArchitecturalSmell.Level> getSmellLevels(){
+        return smellLevels.isEmpty() ? EnumSet.allOf(ArchitecturalSmell.Level.class) : EnumSet.copyOf(smellLevels);
+    }
+
     public String getArcanJarFile(){
         return new File(runArcan).getAbsolutePath();
     }
@@ -57,6 +102,14 @@ public class Args {
         return runArcan != null;
     }
 
+    /**
+     * Returns the maximum running time of the Arcan process analysing a version.
+     * @return the timeout, or null if the processes should never be stopped.
+     */
+    public Duration getArcanTimeout(){
+        return arcanTimeout > 0 ? Duration.ofMinutes(arcanTimeout) : null;
+    }
+
     public String getSimilarityScoreFile(){
         return getOutputFileName("similarity-scores", "csv");
     }
@@ -88,6 +141,30 @@ public class Args {
         return Paths.get(getTrackASOutDir(), fileName).toString();
     }
 
+    /**
+     * Returns the directory containing the cached results of the analysis of the versions of the project.
+     * @return the cache directory.
+     */
+    public File getAnalysisCacheDir(){
+        return Paths.get(getTrackASOutDir(), "cache").toFile();
+    }
+
+    /**
+     * Returns the directory containing the classes decompiled from the JARs of the project.
+     * @return the decompilation cache directory.
+     */
+    public File getDecompilationCacheDir(){
+        return new File(getAnalysisCacheDir(), "decompiled");
+    }
+
+    /**
+     * Returns the directory containing the changes computed between the commits of the project.
+     * @return the diff cache directory.
+     */
+    public File getDiffCacheDir(){
+        return new File(getAnalysisCacheDir(), "diffs");
+    }
+
     public String getHomeProjectDirectory(){
         return inputDirectory.getAbsolutePath();
     }
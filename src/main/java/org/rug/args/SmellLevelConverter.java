@@ -0,0 +1,21 @@
+package org.rug.args;
+
+import com.beust.jcommander.IStringConverter;
+import org.rug.data.smells.ArchitecturalSmell;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SmellLevelConverter implements IStringConverter<ArchitecturalSmell.Level> {
+
+    private final static Logger logger = LoggerFactory.getLogger(SmellLevelConverter.class);
+
+    @Override
+    public ArchitecturalSmell.Level convert(String s) {
+        var level = ArchitecturalSmell.Level.fromString(s);
+        if (level == null) {
+            logger.error("Unknown smell level: {}", s);
+            throw new IllegalArgumentException();
+        }
+        return level;
+    }
+}
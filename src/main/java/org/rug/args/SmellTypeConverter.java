@@ -0,0 +1,26 @@
+package org.rug.args;
+
+import com.beust.jcommander.IStringConverter;
+import org.rug.data.smells.ArchitecturalSmell;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SmellTypeConverter implements IStringConverter<ArchitecturalSmell.Type> {
+
+    private final static Logger logger = LoggerFactory.getLogger(SmellTypeConverter.class);
+
+    /**
+     * Converts either the name of the enum (e.g. CD) or the type name used by Arcan (e.g. cyclicDep) to a smell type.
+     * @param s the string to convert.
+     * @return the type of smell.
+     */
+    @Override
+    public ArchitecturalSmell.Type convert(String s) {
+        for (var type : ArchitecturalSmell.Type.values()) {
+            if (type.name().equalsIgnoreCase(s) || type.toString().equalsIgnoreCase(s))
+                return type;
+        }
+        logger.error("Unknown smell type: {}", s);
+        throw new IllegalArgumentException();
+    }
+}
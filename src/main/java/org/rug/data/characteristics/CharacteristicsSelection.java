@@ -0,0 +1,87 @@
+package org.rug.data.characteristics;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * The characteristics to compute during an analysis: the characteristics requested by the outputs or selected by
+ * the user, and the characteristics they depend on (see {@link ICharacteristic#getDependencies()}).
+ * Characteristics that are not selected are not computed, hence their values are absent from the outputs.
+ */
+public class CharacteristicsSelection {
+
+    private final static CharacteristicsSelection ALL = new CharacteristicsSelection(null);
+
+    private final Set<String> selectedNames;
+
+    private CharacteristicsSelection(Set<String> selectedNames) {
+        this.selectedNames = selectedNames;
+    }
+
+    /**
+     * Returns the selection of all the characteristics.
+     * @return a selection containing every characteristic.
+     */
+    public static CharacteristicsSelection all(){
+        return ALL;
+    }
+
+    /**
+     * Selects the characteristics that are requested or whose name is given, together with their dependencies.
+     * @param characteristics the characteristics that can be selected.
+     * @param requested the predicate identifying the requested characteristics.
+     * @param names the names of further characteristics to select.
+     * @return the selection.
+     * @throws IllegalArgumentException if a name, or the name of a dependency, does not match any of the
+     * given characteristics.
+     */
+    public static CharacteristicsSelection of(Collection<? extends ICharacteristic> characteristics,
+                                              Predicate<ICharacteristic> requested, Collection<String> names){
+        var characteristicsByName = new HashMap<String, List<ICharacteristic>>();
+        characteristics.forEach(c -> characteristicsByName.computeIfAbsent(c.getName(), k -> new ArrayList<>()).add(c));
+
+        var toVisit = new ArrayDeque<>(names);
+        characteristics.stream().filter(requested).map(ICharacteristic::getName).forEach(toVisit::add);
+        var selectedNames = new TreeSet<String>();
+        while (!toVisit.isEmpty()) {
+            var name = toVisit.pop();
+            if (!characteristicsByName.containsKey(name)) {
+                throw new IllegalArgumentException(String.format("Unknown characteristic: %s.", name));
+            }
+            if (selectedNames.add(name)) {
+                characteristicsByName.get(name).forEach(c -> toVisit.addAll(c.getDependencies()));
+            }
+        }
+        return new CharacteristicsSelection(Collections.unmodifiableSet(selectedNames));
+    }
+
+    /**
+     * Whether the given characteristic is selected.
+     * @param characteristic the characteristic.
+     * @return true if the characteristic must be computed, false otherwise.
+     */
+    public boolean isSelected(ICharacteristic characteristic){
+        return selectedNames == null || selectedNames.contains(characteristic.getName());
+    }
+
+    /**
+     * Returns the selected characteristics among the given ones, preserving their order.
+     * @param characteristics the characteristics.
+     * @param <C> the type of the characteristics.
+     * @return a new set containing the selected characteristics.
+     */
+    public <C extends ICharacteristic> Set<C> filter(Collection<C> characteristics){
+        var selected = new LinkedHashSet<C>();
+        characteristics.stream().filter(this::isSelected).forEach(selected::add);
+        return selected;
+    }
+
+    /**
+     * Returns the names of the selected characteristics, sorted alphabetically, or "all".
+     * @return a string representation of this selection.
+     */
+    @Override
+    public String toString() {
+        return selectedNames == null ? "all" : selectedNames.toString();
+    }
+}
@@ -0,0 +1,385 @@
+package org.rug.data.characteristics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.function.DoubleFunction;
+import java.util.function.Supplier;
+
+/**
+ * Stores the values of the characteristics of the smells of a version in columns of primitive values.
+ * Every smell is assigned a row and every characteristic a column, whose type depends on the values
+ * stored in it: double, long or text (dictionary-encoded, as text values are mostly enumerations).
+ * A cell can also hold no value, which is used when a characteristic is not defined for a type of smell.
+ * Values are converted into strings only when they are requested as such (e.g. when written as output).
+ */
+public class CharacteristicsTable {
+
+    private final static byte EMPTY_CELL = 0;
+    private final static byte NO_VALUE_CELL = 1;
+    private final static byte DOUBLE_CELL = 2;
+    private final static byte LONG_CELL = 3;
+    private final static byte TEXT_CELL = 4;
+
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private int rows;
+
+    /**
+     * Creates a table with the given number of rows.
+     * @param rows the initial number of rows, the table grows if a larger row index is used.
+     */
+    public CharacteristicsTable(int rows) {
+        this.rows = Math.max(rows, 1);
+    }
+
+    /**
+     * Sets a double value.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     * @param value the value.
+     * @param formatter the function to use to convert the values of this column into strings.
+     */
+    public void setDouble(String characteristic, int row, double value, DoubleFunction<String> formatter){
+        column(characteristic, DoubleColumn.class, () -> new DoubleColumn(rows, formatter)).set(ensureRow(row), value);
+    }
+
+    /**
+     * Sets a long value.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     * @param value the value.
+     */
+    public void setLong(String characteristic, int row, long value){
+        column(characteristic, LongColumn.class, () -> new LongColumn(rows)).set(ensureRow(row), value);
+    }
+
+    /**
+     * Sets a text value.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     * @param value the value.
+     */
+    public void setText(String characteristic, int row, String value){
+        column(characteristic, TextColumn.class, () -> new TextColumn(rows)).set(ensureRow(row), value);
+    }
+
+    /**
+     * Marks the given cell as having no value, meaning that the characteristic is not defined for the smell.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     */
+    public void setNoValue(String characteristic, int row){
+        columns.computeIfAbsent(characteristic, k -> new NoValueColumn()).setNoValue(ensureRow(row));
+    }
+
+    /**
+     * Copies the value of a cell from another table into this table.
+     * @param characteristic the name of the characteristic.
+     * @param row the destination row.
+     * @param source the table to copy the value from.
+     * @param sourceRow the row to copy the value from.
+     * @return true if the source table contained a value (or the absence of a value), false otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean copy(String characteristic, int row, CharacteristicsTable source, int sourceRow){
+        var sourceColumn = source.columns.get(characteristic);
+        if (sourceColumn == null || !sourceColumn.isSet(sourceRow)) {
+            return false;
+        }
+        if (sourceColumn.hasValue(sourceRow)) {
+            column(characteristic, (Class<Column>) sourceColumn.getClass(), () -> sourceColumn.emptyCopy(rows))
+                    .copyValue(ensureRow(row), sourceColumn, sourceRow);
+        } else {
+            setNoValue(characteristic, row);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the numeric value of a cell.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     * @return the value, or an empty optional if the cell is empty, has no value, or it is not numeric.
+     */
+    public OptionalDouble getNumber(String characteristic, int row){
+        var column = columns.get(characteristic);
+        if (column == null || !column.hasValue(row)) {
+            return OptionalDouble.empty();
+        }
+        if (column instanceof DoubleColumn) {
+            return OptionalDouble.of(((DoubleColumn) column).values[row]);
+        } else if (column instanceof LongColumn) {
+            return OptionalDouble.of(((LongColumn) column).values[row]);
+        }
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Writes the value of a cell in a compact binary form, preserving its type.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     * @param out the output to write to.
+     * @throws IOException if the value cannot be written.
+     * @see #readCell(String, int, DataInput, DoubleFunction)
+     */
+    public void writeCell(String characteristic, int row, DataOutput out) throws IOException {
+        var column = columns.get(characteristic);
+        if (column == null || !column.isSet(row)) {
+            out.writeByte(EMPTY_CELL);
+        } else if (!column.hasValue(row)) {
+            out.writeByte(NO_VALUE_CELL);
+        } else if (column instanceof DoubleColumn) {
+            out.writeByte(DOUBLE_CELL);
+            out.writeDouble(((DoubleColumn) column).values[row]);
+        } else if (column instanceof LongColumn) {
+            out.writeByte(LONG_CELL);
+            out.writeLong(((LongColumn) column).values[row]);
+        } else {
+            out.writeByte(TEXT_CELL);
+            out.writeUTF(column.format(row));
+        }
+    }
+
+    /**
+     * Reads the value of a cell written by {@link #writeCell(String, int, DataOutput)} and stores it in this table.
+     * @param characteristic the name of the characteristic.
+     * @param row the row of the smell.
+     * @param in the input to read from.
+     * @param formatter the function used to convert double values into strings, if the cell contains a double.
+     * @throws IOException if the value cannot be read.
+     */
+    public void readCell(String characteristic, int row, DataInput in, DoubleFunction<String> formatter) throws IOException {
+        var type = in.readByte();
+        switch (type) {
+            case EMPTY_CELL:
+                break;
+            case NO_VALUE_CELL:
+                setNoValue(characteristic, row);
+                break;
+            case DOUBLE_CELL:
+                setDouble(characteristic, row, in.readDouble(), formatter);
+                break;
+            case LONG_CELL:
+                setLong(characteristic, row, in.readLong());
+                break;
+            case TEXT_CELL:
+                setText(characteristic, row, in.readUTF());
+                break;
+            default:
+                throw new IOException(String.format("Unknown type of cell: %d.", type));
+        }
+    }
+
+    /**
+     * Returns the values of the given row converted into strings. This is meant to be used only when
+     * writing the values as output.
+     * @param row the row of the smell.
+     * @return a map from the names of the characteristics to their values. Cells with no value are mapped
+     * to {@link ISmellCharacteristic#NO_VALUE}.
+     */
+    public Map<String, String> toStringMap(int row){
+        var map = new HashMap<String, String>();
+        columns.forEach((name, column) -> {
+            if (column.isSet(row)) {
+                map.put(name, column.hasValue(row) ? column.format(row) : ISmellCharacteristic.NO_VALUE);
+            }
+        });
+        return map;
+    }
+
+    /**
+     * Returns the column with the given name and type, creating it if necessary. A column that contains only cells
+     * with no value is converted into the requested type.
+     */
+    private <C extends Column> C column(String characteristic, Class<C> type, Supplier<C> factory){
+        var column = columns.get(characteristic);
+        if (!type.isInstance(column)) {
+            var typedColumn = factory.get();
+            if (column != null) {
+                if (!(column instanceof NoValueColumn)) {
+                    throw new IllegalStateException(String.format("Characteristic %s cannot store values of type %s.",
+                            characteristic, type.getSimpleName()));
+                }
+                ((Column) typedColumn).set.or(column.set);
+                ((Column) typedColumn).noValue.or(column.noValue);
+            }
+            columns.put(characteristic, typedColumn);
+            column = typedColumn;
+        }
+        return type.cast(column);
+    }
+
+    private int ensureRow(int row){
+        if (row >= rows) {
+            rows = Math.max(row + 1, rows * 2);
+            columns.values().forEach(c -> c.resize(rows));
+        }
+        return row;
+    }
+
+    /**
+     * A column of values. A cell is set if it contains a value or it was marked as having no value.
+     */
+    private static abstract class Column {
+        private final BitSet set = new BitSet();
+        private final BitSet noValue = new BitSet();
+
+        boolean isSet(int row){
+            return set.get(row);
+        }
+
+        boolean hasValue(int row){
+            return set.get(row) && !noValue.get(row);
+        }
+
+        void markSet(int row){
+            set.set(row);
+            noValue.clear(row);
+        }
+
+        void setNoValue(int row){
+            set.set(row);
+            noValue.set(row);
+        }
+
+        abstract void copyValue(int row, Column source, int sourceRow);
+        abstract Column emptyCopy(int rows);
+        abstract String format(int row);
+        abstract void resize(int rows);
+    }
+
+    /**
+     * A column whose cells have no value. It is replaced by a typed column when the first value is set.
+     */
+    private static class NoValueColumn extends Column {
+        @Override
+        void copyValue(int row, Column source, int sourceRow) {
+            // the cells of this column never hold a value, so the copy has none either
+            setNoValue(row);
+        }
+
+        @Override
+        Column emptyCopy(int rows) {
+            return new NoValueColumn();
+        }
+
+        @Override
+        String format(int row) {
+            return ISmellCharacteristic.NO_VALUE;
+        }
+
+        @Override
+        void resize(int rows) {}
+    }
+
+    private static class DoubleColumn extends Column {
+        private double[] values;
+        private final DoubleFunction<String> formatter;
+
+        DoubleColumn(int rows, DoubleFunction<String> formatter) {
+            this.values = new double[rows];
+            this.formatter = formatter;
+        }
+
+        void set(int row, double value){
+            values[row] = value;
+            markSet(row);
+        }
+
+        @Override
+        void copyValue(int row, Column source, int sourceRow) {
+            set(row, ((DoubleColumn) source).values[sourceRow]);
+        }
+
+        @Override
+        Column emptyCopy(int rows) {
+            return new DoubleColumn(rows, formatter);
+        }
+
+        @Override
+        String format(int row) {
+            return formatter.apply(values[row]);
+        }
+
+        @Override
+        void resize(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+    }
+
+    private static class LongColumn extends Column {
+        private long[] values;
+
+        LongColumn(int rows) {
+            this.values = new long[rows];
+        }
+
+        void set(int row, long value){
+            values[row] = value;
+            markSet(row);
+        }
+
+        @Override
+        void copyValue(int row, Column source, int sourceRow) {
+            set(row, ((LongColumn) source).values[sourceRow]);
+        }
+
+        @Override
+        Column emptyCopy(int rows) {
+            return new LongColumn(rows);
+        }
+
+        @Override
+        String format(int row) {
+            return String.valueOf(values[row]);
+        }
+
+        @Override
+        void resize(int rows) {
+            values = Arrays.copyOf(values, rows);
+        }
+    }
+
+    private static class TextColumn extends Column {
+        private int[] codes;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+
+        TextColumn(int rows) {
+            this.codes = new int[rows];
+        }
+
+        void set(int row, String value){
+            codes[row] = dictionaryCodes.computeIfAbsent(value, v -> { dictionary.add(v); return dictionary.size() - 1; });
+            markSet(row);
+        }
+
+        @Override
+        void copyValue(int row, Column source, int sourceRow) {
+            set(row, source.format(sourceRow));
+        }
+
+        @Override
+        Column emptyCopy(int rows) {
+            return new TextColumn(rows);
+        }
+
+        @Override
+        String format(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        void resize(int rows) {
+            codes = Arrays.copyOf(codes, rows);
+        }
+    }
+}
@@ -18,6 +18,7 @@ public class ComponentCharacteristicSet {
         characteristics.add(new NumberOfLinesOfCode());
         characteristics.add(new ChangeMetrics(ChangeMetrics.NAME));
         characteristics.add(new PCCCMetric(ChangeMetrics.NAME));
+        characteristics.add(new CoChangeCoupling());
         characteristics.add(new CHOMetricPackage());
         characteristics.add(new PCPCMetric());
         characteristics.add(new TACHMetricPackage());
@@ -0,0 +1,33 @@
+package org.rug.data.characteristics;
+
+import java.util.Set;
+
+/**
+ * Represents a characteristic of either a smell or a component, identified by its name.
+ */
+public interface ICharacteristic {
+
+    /**
+     * Returns the name of this characteristic.
+     * @return the name.
+     */
+    String getName();
+
+    /**
+     * Returns the names of the characteristics whose values are read by this characteristic, hence that must be
+     * computed before it. Component characteristics are computed before smell characteristics.
+     * @return a set of names, empty by default.
+     */
+    default Set<String> getDependencies(){
+        return Set.of();
+    }
+
+    /**
+     * Whether computing this characteristic requires an analysis of the whole dependency graph (e.g. centrality or
+     * shortest paths), rather than of the elements of a single smell or component.
+     * @return false by default.
+     */
+    default boolean isGraphAnalysis(){
+        return false;
+    }
+}
@@ -7,13 +7,7 @@ import java.util.List;
 /**
  * Represents a characteristic/attribute/property of a component.
  */
-public interface IComponentCharacteristic {
-
-    /**
-     * Returns the name of this characteristic.
-     * @return the name.
-    */
-    String getName();
+public interface IComponentCharacteristic extends ICharacteristic {
 
     /**
      * The version that contains the graph to calculate this characteristic and store it as a vertex, edge, or graph property.
@@ -1,16 +1,53 @@
 package org.rug.data.characteristics;
 
 import org.rug.data.SmellVisitor;
+import org.rug.data.smells.ArchitecturalSmell;
+
+import java.io.DataInput;
+import java.io.IOException;
 
 /**
  * Models a SmellCharacteristics that returns a value of type R
  */
-public interface ISmellCharacteristic extends SmellVisitor<String> {
+public interface ISmellCharacteristic extends ICharacteristic, SmellVisitor<String> {
+
+    /**
+     * The string representing the absence of a value, used when a characteristic is not defined for a type of smell.
+     */
+    String NO_VALUE = "0";
+
+    /**
+     * Whether the value of this characteristic depends only on the structure of the dependency graph
+     * (i.e. the components, dependencies and smells parsed from Arcan's output). The values of structural
+     * characteristics can be reused across versions with the same {@link org.rug.data.project.StructuralFingerprint}.
+     * @return true by default, false if the characteristic also depends on data computed from the source code
+     * or the version control system.
+     */
+    default boolean isStructural(){
+        return true;
+    }
+
+    /**
+     * Calculates this characteristic on the given smell and stores the result in the given table.
+     * By default, the value is stored as text. Characteristics with numeric values store them as such.
+     * @param smell the smell to calculate this characteristic on.
+     * @param table the table to save the value into.
+     * @param row the row of the smell in the table.
+     */
+    default void calculate(ArchitecturalSmell smell, CharacteristicsTable table, int row){
+        table.setText(getName(), row, smell.accept(this));
+    }
 
     /**
-     * Returns the name of this characteristic.
-     * @return the name.
+     * Reads a value of this characteristic previously written with
+     * {@link CharacteristicsTable#writeCell(String, int, java.io.DataOutput)} and stores it in the given table.
+     * @param in the input to read the value from.
+     * @param table the table to save the value into.
+     * @param row the row of the smell in the table.
+     * @throws IOException if the value cannot be read.
      */
-    String getName();
+    default void restore(DataInput in, CharacteristicsTable table, int row) throws IOException {
+        table.readCell(getName(), row, in, String::valueOf);
+    }
 
 }
@@ -4,7 +4,7 @@ import org.rug.data.characteristics.smells.*;
 import org.rug.data.smells.ArchitecturalSmell;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -20,12 +20,15 @@ public abstract class SmellCharacteristicsSet {
         Set<ISmellCharacteristic> characteristics = new LinkedHashSet<>();
         addSmellGenericCharacteristics(characteristics);
         addSmellSpecificCharacteristics(characteristics);
-        this.characteristics = Collections.unmodifiableSet(characteristics);
+        var characteristicsByName = new LinkedHashMap<String, ISmellCharacteristic>();
+        characteristics.forEach(c -> characteristicsByName.putIfAbsent(c.getName(), c));
+        this.characteristics = Collections.unmodifiableSet(new LinkedHashSet<>(characteristicsByName.values()));
     }
 
 
     /**
-     * Returns the sets of characteristics.
+     * Returns the sets of characteristics. Characteristics are unique by name: if more characteristics with the
+     * same name are added, only the first one is kept.
      * @return an unmodifiable set of characteristics.
      */
     public final Set<ISmellCharacteristic> getCharacteristicSet(){
@@ -53,6 +56,5 @@ public abstract class SmellCharacteristicsSet {
         characteristics.add(new PageRank("pageRankAvrg", x -> x.average().orElse(0)));
         characteristics.add(new NumberOfEdges());
         characteristics.add(new AffectedComponentsType());
-        characteristics.add(new AverageNumOfChanges());
     }
 }
@@ -1,6 +1,5 @@
 package org.rug.data.characteristics.comps;
 
-import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.labels.EdgeLabel;
@@ -8,6 +7,7 @@ import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.IVersion;
 
 import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Calculates the "Change has occurred metric" for packages for both classes and packages.
@@ -25,6 +25,15 @@ public class CHOMetricPackage extends AbstractComponentCharacteristic {
         this(NAME);
     }
 
+    /**
+     * The values of the files are computed by {@link ChangeMetrics}.
+     * @return the name of the change metrics.
+     */
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of(ChangeMetrics.NAME);
+    }
+
     /**
      * Calculate the characteristic on the graph of this version and save it as a node, vertex or graph property.
      *
@@ -45,10 +54,7 @@ public class CHOMetricPackage extends AbstractComponentCharacteristic {
      */
     @Override
     protected void calculate(Vertex vertex) {
-        boolean hasChanged = vertex.graph().traversal().V(vertex).in(EdgeLabel.BELONGSTO.toString())
-                .hasLabel(P.within(VertexLabel.getFilesStrings()))
-                .<Boolean>values(this.name).toStream().filter(b -> b).findAny().orElse(false);
-        vertex.property(name, hasChanged);
+        vertex.property(name, ContainmentRollUp.anyOfFiles(vertex, this.name));
     }
 
     /**
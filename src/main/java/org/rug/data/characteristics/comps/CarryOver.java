@@ -0,0 +1,102 @@
+package org.rug.data.characteristics.comps;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.ObjectId;
+import org.rug.data.project.GitVersion;
+import org.rug.data.project.IVersion;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Carries over the values that a component characteristic computed on the files of the previous version of a git
+ * project, matching the files by label and name. The value of a file is carried over only if no path added, modified,
+ * renamed or deleted between the commits of the two versions has the same file name of the file, as in this case
+ * every lookup of the source file of the element finds the same path with the same content in both versions.
+ * Values are never carried over between versions that are not git versions, or whose commits are not the last
+ * two commits visited.
+ * @param <T> the type of the values.
+ */
+public class CarryOver<T> {
+
+    private Map<String, T> previousValues = new HashMap<>();
+    private Map<String, T> currentValues = new HashMap<>();
+    private Set<String> duplicatedKeys = new HashSet<>();
+    private Set<String> changedFileNames;
+    private SourceCodeRetriever retriever;
+    private GitVersion lastVersion;
+
+    /**
+     * Starts collecting the values of the given version, the values collected so far become the previous ones.
+     * The files changed with respect to the version previously visited are retrieved through
+     * {@link ChangeMetrics#getChanges(org.eclipse.jgit.lib.Repository, ObjectId, ObjectId)}.
+     * @param version the version whose values are going to be computed.
+     */
+    public void nextVersion(IVersion version) {
+        duplicatedKeys.forEach(currentValues::remove);
+        previousValues = currentValues;
+        currentValues = new HashMap<>(Math.max(16, previousValues.size() * 2));
+        duplicatedKeys = new HashSet<>();
+        changedFileNames = null;
+        retriever = version.getSourceCodeRetriever();
+
+        var gitVersion = version instanceof GitVersion ? (GitVersion) version : null;
+        if (gitVersion != null && lastVersion != null && lastVersion.getRepository() == gitVersion.getRepository()) {
+            ChangeMetrics.getChanges(gitVersion.getRepository(), lastVersion.getCommitObjectId(), gitVersion.getCommitObjectId())
+                    .ifPresent(changes -> {
+                        changedFileNames = new HashSet<>();
+                        for (var change : changes) {
+                            addFileName(change.getOldPath());
+                            addFileName(change.getNewPath());
+                        }
+                    });
+        }
+        lastVersion = gitVersion;
+    }
+
+    /**
+     * Returns the value of the file with the same label and name in the previous version, if the file did not change.
+     * @param file the file vertex.
+     * @return the value of the file in the previous version, or an empty optional if the value must be computed.
+     */
+    public Optional<T> get(Vertex file) {
+        if (changedFileNames == null || retriever == null) {
+            return Optional.empty();
+        }
+        var value = previousValues.get(keyOf(file));
+        if (value == null) {
+            return Optional.empty();
+        }
+        var fileNames = retriever.getFileNamesOf(file);
+        if (fileNames.isEmpty() || fileNames.stream().anyMatch(changedFileNames::contains)) {
+            return Optional.empty();
+        }
+        return Optional.of(value);
+    }
+
+    /**
+     * Records the value of the given file in the current version, so that it can be carried over to the next one.
+     * The values of the names that occur more than once in a version are not carried over.
+     * @param file the file vertex.
+     * @param value the value of the file, either computed or carried over.
+     */
+    public void put(Vertex file, T value) {
+        if (currentValues.putIfAbsent(keyOf(file), value) != null) {
+            duplicatedKeys.add(keyOf(file));
+        }
+    }
+
+    private void addFileName(String path) {
+        if (!path.equals(DiffEntry.DEV_NULL)) {
+            changedFileNames.add(path.substring(path.lastIndexOf('/') + 1));
+        }
+    }
+
+    private static String keyOf(Vertex file) {
+        return file.label() + ":" + file.value("name");
+    }
+}
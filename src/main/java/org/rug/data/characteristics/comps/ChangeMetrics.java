@@ -18,7 +18,11 @@ import org.rug.data.project.IVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 /**
@@ -46,13 +50,22 @@ public class ChangeMetrics extends AbstractComponentCharacteristic {
     protected static final int RENAME_LIMIT = 500;
 
 
+    private final static int DIFF_CACHE_MAGIC = 0x41534446;
+    private final static int DIFF_CACHE_VERSION = 1;
+
+    private static Path diffCacheDir = null;
+    private static Repository lastRepository;
+    private static ObjectId lastParent;
+    private static ObjectId lastChild;
+    private static List<FileChange> lastChanges;
+
     private SourceCodeRetriever retriever;
     private Map<String, Long> changeHistory;
     private GitVersion previousVersion;
     private GitVersion currentVersion;
 
-    private DiffFormatter diffFormatter;
-    private List<DiffEntry> entries;
+    private PathSuffixIndex<FileChange> changes;
+    private final CarryOver<Long> unchangedFiles = new CarryOver<>();
 
     public ChangeMetrics(String name) {
         super(name,
@@ -61,6 +74,15 @@ public class ChangeMetrics extends AbstractComponentCharacteristic {
         this.changeHistory = new HashMap<>(1000);
     }
 
+    /**
+     * Sets the directory where the changes between two commits are saved and looked for before computing
+     * the diff between them.
+     * @param dir the directory, or null to not save the changes.
+     */
+    public static void setDiffCacheDir(Path dir) {
+        diffCacheDir = dir;
+    }
+
     /**
      * Triggers the calculation of this characteristic given that the given version is
      * a {@link GitVersion} object.
@@ -71,6 +93,7 @@ public class ChangeMetrics extends AbstractComponentCharacteristic {
         if (version instanceof GitVersion) {
             currentVersion = (GitVersion)version;
             retriever = version.getSourceCodeRetriever();
+            unchangedFiles.nextVersion(version);
             if (previousVersion != null) {
                 initDiff(currentVersion.getRepository(),
                         previousVersion.getCommitObjectId(),
@@ -81,17 +104,30 @@ public class ChangeMetrics extends AbstractComponentCharacteristic {
         }
     }
 
+    /**
+     * Computes the change metrics of the given file. The frequency of changes of a file that did not change since
+     * the previous version is carried over by name (see {@link CarryOver}), and no change has occurred on it.
+     * @param vertex the file vertex.
+     */
     @Override
     protected void calculate(Vertex vertex) {
+        var unchangedFrequency = unchangedFiles.get(vertex);
+        if (unchangedFrequency.isPresent()) {
+            vertex.property(TACHMetricPackage.NAME, 0L);
+            vertex.property(CHOMetricPackage.NAME, false);
+            vertex.property(this.name, unchangedFrequency.get());
+            unchangedFiles.put(vertex, unchangedFrequency.get());
+            return;
+        }
         var pathFile = retriever.relativize(retriever.getPathOf(vertex));
         if (pathFile.isEmpty()){
             vertex.property(this.name, 0L);
             vertex.property(TACHMetricPackage.NAME, 0L);
             vertex.property(CHOMetricPackage.NAME, false);
+            unchangedFiles.put(vertex, 0L);
             return;
         }
-        var pathFileStr = pathFile.get().toString();
-        var changeOpt = getDiffOf(pathFileStr);
+        var changeOpt = changes.find(pathFile.get());
 
         var hasChanged = false;
         String key;
@@ -118,11 +154,12 @@ public class ChangeMetrics extends AbstractComponentCharacteristic {
                     break;
             }
         }else {
-            key = String.format("%s#%s", pathFileStr, vertex.value("name"));
+            key = String.format("%s#%s", pathFile.get().toString(), vertex.value("name"));
         }
-        vertex.property(TACHMetricPackage.NAME, countTotalAmountOfChanges(changeOpt));
+        vertex.property(TACHMetricPackage.NAME, changeOpt.map(FileChange::getTotalAmountOfChanges).orElse(0L));
         vertex.property(CHOMetricPackage.NAME, hasChanged);
         vertex.property(this.name, changeHistory.getOrDefault(key, 0L));
+        unchangedFiles.put(vertex, changeHistory.getOrDefault(key, 0L));
     }
 
     @Override
@@ -131,66 +168,205 @@ public class ChangeMetrics extends AbstractComponentCharacteristic {
     }
 
     /**
-     * Computes the list of DiffEntry that contains all the differences between the 2 commits.
+     * Computes the changes between the 2 commits, and indexes them by the suffixes of the paths of the files changed.
      * Note that this implementation only returns the differences between the two given commit, ignoring any
-     * commit in between.
+     * commit in between. The changes are read from the diff cache directory, if they were already computed.
      * @param repo The repository in which the commits are.
      * @param parent The parent commit to which needs to be compared.
      * @param child The child commit that needs to be compared to the parent commit.
      */
     private void initDiff(Repository repo, ObjectId parent, ObjectId child) {
-        if (diffFormatter == null) {
-            diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE);
+        changes = new PathSuffixIndex<>();
+        for (var change : getChanges(repo, parent, child).orElse(List.of())) {
+            if (change.getChangeType() != DiffEntry.ChangeType.DELETE) {
+                changes.add(Paths.get(change.getNewPath()), change);
+            }
+        }
+    }
+
+    /**
+     * Returns the changes between the 2 commits, together with the lines changed in every file. The changes are read
+     * from the diff cache directory, if they were already computed, and the changes between the last 2 commits
+     * requested are kept in memory, so that they are computed once for all the characteristics of a version.
+     * @param repo The repository in which the commits are.
+     * @param parent The parent commit to which needs to be compared.
+     * @param child The child commit that needs to be compared to the parent commit.
+     * @return the list of changes, or an empty optional if the diff between the commits could not be performed.
+     */
+    public static synchronized Optional<List<FileChange>> getChanges(Repository repo, ObjectId parent, ObjectId child) {
+        if (repo == lastRepository && parent.equals(lastParent) && child.equals(lastChild)) {
+            return Optional.ofNullable(lastChanges);
+        }
+        List<FileChange> fileChanges = null;
+        Path cachedFile = null;
+        if (diffCacheDir != null) {
+            cachedFile = diffCacheDir.resolve(String.format("%s-%s-%d-%d.bin",
+                    parent.getName(), child.getName(), RENAME_SCORE, RENAME_LIMIT));
+            fileChanges = readChanges(cachedFile);
+        }
+        if (fileChanges == null) {
+            fileChanges = computeChanges(repo, parent, child);
+            if (cachedFile != null && fileChanges != null) {
+                writeChanges(cachedFile, fileChanges);
+            }
+        }
+        lastRepository = repo;
+        lastParent = parent;
+        lastChild = child;
+        lastChanges = fileChanges;
+        return Optional.ofNullable(fileChanges);
+    }
+
+    /**
+     * Computes the list of changes between the 2 commits, together with the lines changed in every file.
+     * @return the changes, or null if the diff could not be performed.
+     */
+    private static List<FileChange> computeChanges(Repository repo, ObjectId parent, ObjectId child) {
+        var fileChanges = new ArrayList<FileChange>();
+        try (var diffFormatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
             diffFormatter.setRepository(repo);
             diffFormatter.setDetectRenames(true);
+            var renameDetector = diffFormatter.getRenameDetector();
+            renameDetector.setRenameScore(RENAME_SCORE);
+            renameDetector.setRenameLimit(RENAME_LIMIT);
+            List<DiffEntry> entries;
+            try {
+                entries = diffFormatter.scan(parent, child);
+            } catch (IOException e) {
+                logger.error("Could not perform diff between parent commit {} and child {}.", parent.getName(), child.getName());
+                return null;
+            }
+            for (var entry : entries) {
+                fileChanges.add(countChanges(diffFormatter, entry));
+            }
         }
-        var renameDetector = diffFormatter.getRenameDetector();
-        renameDetector.setRenameScore(RENAME_SCORE);
-        renameDetector.setRenameLimit(RENAME_LIMIT);
+        return fileChanges;
+    }
+
+    private static FileChange countChanges(DiffFormatter diffFormatter, DiffEntry entry) {
+        int linesDeleted = 0, linesAdded = 0, linesModified = 0;
         try {
-            entries = diffFormatter.scan(parent, child);
+            FileHeader fileHeader = diffFormatter.toFileHeader(entry);
+            for (Edit edit : fileHeader.toEditList()) {
+                switch (edit.getType()) {
+                    case INSERT:
+                        linesAdded += edit.getEndB() - edit.getBeginB();
+                        break;
+                    case DELETE:
+                        linesDeleted += edit.getEndA() - edit.getBeginA();
+                        break;
+                    case REPLACE:
+                        linesModified += edit.getEndA() - edit.getBeginA();
+                        break;
+                    case EMPTY:
+                        break;
+                }
+            }
         } catch (IOException e) {
-            logger.error("Could not perform diff between parent commit {} and child {}.", parent.getName(), child.getName());
-            entries = new ArrayList<>();
+            logger.error("Cannot convert to file header: {}", entry.getNewPath());
         }
-        diffFormatter.close();
+        return new FileChange(entry.getChangeType(), entry.getOldPath(), entry.getNewPath(),
+                linesAdded, linesDeleted, linesModified);
     }
 
-    private long countTotalAmountOfChanges(Optional<DiffEntry> entry) {
-        int linesDeleted = 0, linesAdded = 0, linesModified = 0;
-        if (entry.isPresent()){
+    private static List<FileChange> readChanges(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != DIFF_CACHE_MAGIC || in.readInt() != DIFF_CACHE_VERSION) {
+                return null;
+            }
+            int size = in.readInt();
+            var fileChanges = new ArrayList<FileChange>(size);
+            for (int i = 0; i < size; i++) {
+                fileChanges.add(new FileChange(DiffEntry.ChangeType.values()[in.readByte()], in.readUTF(), in.readUTF(),
+                        in.readInt(), in.readInt(), in.readInt()));
+            }
+            return fileChanges;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read cached changes from {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeChanges(Path file, List<FileChange> fileChanges) {
+        try {
+            Files.createDirectories(file.getParent());
+            var temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
             try {
-                FileHeader fileHeader = diffFormatter.toFileHeader(entry.get());
-                for (Edit edit : fileHeader.toEditList()) {
-                    switch (edit.getType()) {
-                        case INSERT:
-                            linesAdded += edit.getEndB() - edit.getBeginB();
-                            break;
-                        case DELETE:
-                            linesDeleted += edit.getEndA() - edit.getBeginA();
-                            break;
-                        case REPLACE:
-                            linesModified += edit.getEndA() - edit.getBeginA();
-                            break;
-                        case EMPTY:
-                            break;
+                try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                    out.writeInt(DIFF_CACHE_MAGIC);
+                    out.writeInt(DIFF_CACHE_VERSION);
+                    out.writeInt(fileChanges.size());
+                    for (var change : fileChanges) {
+                        out.writeByte(change.getChangeType().ordinal());
+                        out.writeUTF(change.getOldPath());
+                        out.writeUTF(change.getNewPath());
+                        out.writeInt(change.getLinesAdded());
+                        out.writeInt(change.getLinesDeleted());
+                        out.writeInt(change.getLinesModified());
                     }
                 }
-            } catch (IOException e) {
-                logger.error("Cannot convert to file header: {}", entry.get().getNewPath());
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
             }
-        }else {
-            return 0;
+        } catch (IOException e) {
+            logger.warn("Could not save changes to {}: {}", file, e.getMessage());
         }
-        return linesAdded + linesDeleted + 2 * linesModified;
     }
 
     /**
-     * Looks in the diff entry of between the current commits to find the given path.
-     * @param pathSuffix the path to use as a suffix.
-     * @return an optional containing a DiffEntry if any path was matched.
+     * The change of a file between two commits and the number of lines changed.
      */
-    private Optional<DiffEntry> getDiffOf(String pathSuffix){
-        return entries.stream().filter(e -> e.getNewPath().endsWith(pathSuffix)).findFirst();
+    public static class FileChange {
+        private final DiffEntry.ChangeType changeType;
+        private final String oldPath;
+        private final String newPath;
+        private final int linesAdded;
+        private final int linesDeleted;
+        private final int linesModified;
+
+        public FileChange(DiffEntry.ChangeType changeType, String oldPath, String newPath,
+                          int linesAdded, int linesDeleted, int linesModified) {
+            this.changeType = changeType;
+            this.oldPath = oldPath;
+            this.newPath = newPath;
+            this.linesAdded = linesAdded;
+            this.linesDeleted = linesDeleted;
+            this.linesModified = linesModified;
+        }
+
+        public DiffEntry.ChangeType getChangeType() {
+            return changeType;
+        }
+
+        public String getOldPath() {
+            return oldPath;
+        }
+
+        public String getNewPath() {
+            return newPath;
+        }
+
+        public int getLinesAdded() {
+            return linesAdded;
+        }
+
+        public int getLinesDeleted() {
+            return linesDeleted;
+        }
+
+        public int getLinesModified() {
+            return linesModified;
+        }
+
+        /**
+         * @return the total amount of changes, where modified lines count twice (as deleted and added).
+         */
+        public long getTotalAmountOfChanges() {
+            return linesAdded + linesDeleted + 2L * linesModified;
+        }
     }
 }
@@ -0,0 +1,85 @@
+package org.rug.data.characteristics.comps;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.labels.VertexLabel;
+import org.rug.data.project.IVersion;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Calculates the co-change coupling of the files: the highest share of the changes of a file that happened together
+ * with the changes of another file. The changes are those detected by {@link ChangeMetrics} between two consecutive
+ * versions, and they are accumulated across versions in a {@link CoChangeMatrix}, where older co-changes
+ * weigh less than recent ones.
+ */
+public class CoChangeCoupling extends AbstractComponentCharacteristic {
+
+    public final static String NAME = "coChangeCoupling";
+
+    /**
+     * The decay applied to the co-changes at every version.
+     */
+    protected final static double DECAY = 0.95d;
+    /**
+     * The maximum number of partners tracked for every file.
+     */
+    protected final static int MAX_PARTNERS = 20;
+    /**
+     * The maximum number of files changed between two versions for their co-changes to be counted.
+     */
+    protected final static int MAX_CHANGE_SET_SIZE = 200;
+
+    private final CoChangeMatrix matrix;
+
+    public CoChangeCoupling() {
+        super(NAME, VertexLabel.allFiles(), EnumSet.noneOf(EdgeLabel.class));
+        this.matrix = new CoChangeMatrix(DECAY, MAX_PARTNERS, MAX_CHANGE_SET_SIZE);
+    }
+
+    /**
+     * The changed files are those marked by {@link ChangeMetrics}.
+     * @return the name of the change metrics.
+     */
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of(ChangeMetrics.NAME);
+    }
+
+    /**
+     * Records the files changed in the given version and computes the coupling of every file that has change data.
+     * @param version the version from which to retrieve the components
+     */
+    @Override
+    public void calculate(IVersion version) {
+        var files = version.getGraph().traversal().V()
+                .hasLabel(P.within(vLabels))
+                .has(CHOMetricPackage.NAME)
+                .toList();
+        if (files.isEmpty()) {
+            return;
+        }
+        var changedFiles = files.stream()
+                .filter(v -> v.<Boolean>value(CHOMetricPackage.NAME))
+                .map(v -> v.<String>value("name"))
+                .collect(Collectors.toSet());
+        matrix.update(changedFiles);
+        super.calculate(version);
+    }
+
+    @Override
+    protected void calculate(Vertex vertex) {
+        if (vertex.property(CHOMetricPackage.NAME).isPresent()) {
+            vertex.property(this.name, matrix.getCoupling(vertex.value("name")));
+        }
+    }
+
+    @Override
+    protected void calculate(Edge edge) {
+
+    }
+}
@@ -0,0 +1,133 @@
+package org.rug.data.characteristics.comps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A sparse matrix counting how many times two components changed in the same commit. Counts decay exponentially
+ * with the number of commits, so that recent co-changes weigh more than old ones, and every component keeps only the
+ * partners it co-changed with the most. Memory is thus bounded by the number of components times the number
+ * of partners kept, independently of the number of commits analysed.
+ */
+public class CoChangeMatrix {
+
+    private final double decay;
+    private final int maxPartners;
+    private final int maxChangeSetSize;
+
+    private final Map<String, Weight> changes = new HashMap<>();
+    private final Map<String, Map<String, Weight>> coChanges = new HashMap<>();
+    private long commit = 0;
+
+    /**
+     * Creates an empty matrix.
+     * @param decay the factor applied to the counts at every commit, in (0, 1].
+     * @param maxPartners the maximum number of partners kept for every component.
+     * @param maxChangeSetSize the maximum number of components changed by a commit for its pairs to be counted.
+     *                         Larger commits (e.g. reformats or license updates) are not meaningful and would add
+     *                         a quadratic number of pairs.
+     */
+    public CoChangeMatrix(double decay, int maxPartners, int maxChangeSetSize) {
+        if (decay <= 0d || decay > 1d || maxPartners < 1) {
+            throw new IllegalArgumentException("Decay must be in (0, 1] and at least one partner must be kept.");
+        }
+        this.decay = decay;
+        this.maxPartners = maxPartners;
+        this.maxChangeSetSize = maxChangeSetSize;
+    }
+
+    /**
+     * Records the components changed by the next commit.
+     * @param changedComponents the names of the components changed. Duplicates are not allowed.
+     */
+    public void update(Collection<String> changedComponents) {
+        commit++;
+        changedComponents.forEach(c -> changes.computeIfAbsent(c, k -> new Weight()).add(1d, commit, decay));
+        if (changedComponents.size() > maxChangeSetSize) {
+            return;
+        }
+        for (var component : changedComponents) {
+            var partners = coChanges.computeIfAbsent(component, k -> new HashMap<>());
+            for (var partner : changedComponents) {
+                if (!partner.equals(component)) {
+                    addCoChange(partners, partner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the coupling of the given component: the highest share of its (decayed) changes that
+     * happened together with the same partner.
+     * @param component the name of the component.
+     * @return a value in [0, 1], 0 if the component never changed together with another component.
+     */
+    public double getCoupling(String component) {
+        var componentChanges = changes.get(component);
+        var partners = coChanges.get(component);
+        if (componentChanges == null || partners == null) {
+            return 0d;
+        }
+        double total = componentChanges.at(commit, decay);
+        double strongest = partners.values().stream().mapToDouble(w -> w.at(commit, decay)).max().orElse(0d);
+        return total > 0d ? Math.min(1d, strongest / total) : 0d;
+    }
+
+    /**
+     * Returns the partners currently kept for the given component.
+     * @param component the name of the component.
+     * @return a list of names, empty if the component has no partners.
+     */
+    public List<String> getPartners(String component) {
+        return new ArrayList<>(coChanges.getOrDefault(component, Map.of()).keySet());
+    }
+
+    /**
+     * Adds a co-change to the partners of a component. If the partner is not tracked and the component already
+     * has the maximum number of partners, the partner with the lowest count is replaced if its count is lower
+     * than the count of a new co-change.
+     */
+    private void addCoChange(Map<String, Weight> partners, String partner) {
+        var weight = partners.get(partner);
+        if (weight == null) {
+            if (partners.size() >= maxPartners) {
+                String weakest = null;
+                double weakestValue = Double.MAX_VALUE;
+                for (var entry : partners.entrySet()) {
+                    double value = entry.getValue().at(commit, decay);
+                    if (value < weakestValue) {
+                        weakest = entry.getKey();
+                        weakestValue = value;
+                    }
+                }
+                if (weakestValue >= 1d) {
+                    return;
+                }
+                partners.remove(weakest);
+            }
+            weight = new Weight();
+            partners.put(partner, weight);
+        }
+        weight.add(1d, commit, decay);
+    }
+
+    /**
+     * A count that decays lazily: the decay is applied only when the count is read or updated.
+     */
+    private static class Weight {
+        private double value;
+        private long commit;
+
+        double at(long now, double decay) {
+            return now == commit ? value : value * Math.pow(decay, now - commit);
+        }
+
+        void add(double amount, long now, double decay) {
+            value = at(now, decay) + amount;
+            commit = now;
+        }
+    }
+}
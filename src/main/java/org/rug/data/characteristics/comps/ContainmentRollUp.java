@@ -0,0 +1,96 @@
+package org.rug.data.characteristics.comps;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.labels.VertexLabel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolls up the values of the elements contained in a component (i.e. the elements with a belongsTo edge towards
+ * the component) to the component itself. The belongsTo edges of a graph are walked once, the first time
+ * a component of the graph is rolled up, and the containment relation is shared by all the component
+ * characteristics that aggregate the values of the contained files, until a different graph is requested.
+ */
+public class ContainmentRollUp {
+
+    private static Graph indexedGraph;
+    private static Map<Vertex, List<Vertex>> members;
+
+    private ContainmentRollUp(){}
+
+    /**
+     * Returns the elements contained in the given component, once for every belongsTo edge
+     * (same as {@code in(belongsTo)}).
+     * @param component the component.
+     * @return the list of the elements contained, empty if none.
+     */
+    public static List<Vertex> getMembers(Vertex component){
+        index(component.graph());
+        return members.getOrDefault(component, List.of());
+    }
+
+    /**
+     * Counts the elements contained in the given component.
+     * @param component the component.
+     * @return the number of elements contained.
+     */
+    public static long count(Vertex component){
+        return getMembers(component).size();
+    }
+
+    /**
+     * Sums the values of the given property of the files contained in the given component. The files without
+     * the property are ignored.
+     * @param component the component.
+     * @param property the property of the files to sum.
+     * @return the sum, 0 if no file has the property.
+     */
+    public static long sumOfFiles(Vertex component, String property){
+        long sum = 0;
+        for (var member : getMembers(component)) {
+            if (isFile(member) && member.property(property).isPresent()) {
+                sum += member.<Number>value(property).longValue();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Checks whether any of the files contained in the given component has the given boolean property set to true.
+     * @param component the component.
+     * @param property the boolean property of the files.
+     * @return true if at least one file has the property set to true, false otherwise.
+     */
+    public static boolean anyOfFiles(Vertex component, String property){
+        for (var member : getMembers(component)) {
+            if (isFile(member) && member.property(property).isPresent() && member.<Boolean>value(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFile(Vertex vertex){
+        return VertexLabel.getFilesStrings().contains(vertex.label());
+    }
+
+    /**
+     * Walks the belongsTo edges of the given graph, unless it is the graph already indexed.
+     * @param graph the graph of the system.
+     */
+    private static synchronized void index(Graph graph){
+        if (graph == indexedGraph) {
+            return;
+        }
+        var containment = new HashMap<Vertex, List<Vertex>>();
+        graph.traversal().E().hasLabel(EdgeLabel.BELONGSTO.toString()).forEachRemaining(e ->
+                containment.computeIfAbsent(e.inVertex(), k -> new ArrayList<>()).add(e.outVertex()));
+        members = containment;
+        indexedGraph = graph;
+    }
+}
@@ -5,10 +5,10 @@ import org.rug.data.labels.VertexLabel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Retrieves CPP source code.
@@ -22,22 +22,39 @@ public class CppSourceCodeRetriever extends SourceCodeRetriever {
     }
 
     /**
-     * Retrieves the source code of the given element. This method also looks for .c files in case
+     * Looks for the source file of the given element. This method also looks for .c files in case
      * no .cpp or .h file is found with the given extension.
      * @param elementName the full name of the element.
      * @param extension the extension to use.
-     * @return the source code of the given element, or {@link #NOT_FOUND} if file is not found.
+     * @return the path of the source file of the given element, or an empty optional if file is not found.
      */
     @Override
-    public String getSource(String elementName, String extension) {
-        var src = super.getSource(elementName, extension);
-        if (src.isEmpty() && !extension.equals(".c")){
-            src = getSource(elementName, ".c");
-            if (!src.isEmpty()){
+    protected Optional<Path> getSourcePathOf(String elementName, String extension) {
+        var path = super.getSourcePathOf(elementName, extension);
+        if (path.isEmpty() && !extension.equals(".c")){
+            path = super.getSourcePathOf(elementName, ".c");
+            if (path.isPresent()){
                 logger.info("Using same-name file with `.c` extension");
             }
         }
-        return src;
+        return path;
+    }
+
+    /**
+     * The source code of an element is also looked for in the .c file with the same name.
+     * @param element the element.
+     * @return the names of the files.
+     */
+    @Override
+    public Set<String> getFileNamesOf(Vertex element) {
+        var fileNames = super.getFileNamesOf(element);
+        var fileName = toFileName(element);
+        if (fileNames.isEmpty() || fileName.lastIndexOf('.') < 0) {
+            return fileNames;
+        }
+        var names = new HashSet<>(fileNames);
+        names.add(fileNameOf(fileName.substring(0, fileName.lastIndexOf('.')) + ".c"));
+        return names;
     }
 
     @Override
@@ -0,0 +1,39 @@
+package org.rug.data.characteristics.comps;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * A source tree stored in a directory of the file system.
+ */
+public class FileSystemSourceTree implements SourceTree {
+
+    private final Path root;
+
+    /**
+     * Instantiates a tree containing all the files in the given directory and its subdirectories.
+     * @param root the directory.
+     */
+    public FileSystemSourceTree(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void forEachFile(Consumer<Path> action) throws IOException {
+        try (var stream = Files.walk(root)) {
+            stream.filter(p -> p.toFile().isFile()).forEach(action);
+        }
+    }
+
+    @Override
+    public byte[] readBytes(Path file) throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public String readString(Path file) throws IOException {
+        return Files.readString(file);
+    }
+}
@@ -0,0 +1,169 @@
+package org.rug.data.characteristics.comps;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A source tree read from the object database of a git repository at a given commit, without checking it out.
+ * The files are listed as if the commit was checked out in the work tree of the repository: the paths are resolved
+ * against the given root directory and only the files within it are listed. Different instances can be read
+ * concurrently, as every read opens its own object reader.
+ */
+public class GitSourceTree implements SourceTree {
+
+    private final Repository repository;
+    private final ObjectId commit;
+    private final Path root;
+    private Map<Path, ObjectId> blobs;
+
+    private static volatile Listing lastListing;
+
+    /**
+     * Instantiates the tree of the given commit.
+     * @param repository the repository containing the commit.
+     * @param commit the id of the commit.
+     * @param root the directory, within the work tree of the repository, whose files are listed. If the directory is
+     *             not within the work tree (e.g. the repository is bare), the whole tree of the commit is listed
+     *             as if it was checked out in this directory.
+     */
+    public GitSourceTree(Repository repository, ObjectId commit, Path root) {
+        this.repository = repository;
+        this.commit = commit;
+        this.root = root;
+    }
+
+    @Override
+    public void forEachFile(Consumer<Path> action) throws IOException {
+        getBlobs().keySet().forEach(action);
+    }
+
+    @Override
+    public byte[] readBytes(Path file) throws IOException {
+        return repository.open(getBlob(file), Constants.OBJ_BLOB).getCachedBytes(Integer.MAX_VALUE);
+    }
+
+    /**
+     * The content of a file is identified by the id of its blob.
+     * @param file the path of a file listed by {@link #forEachFile(Consumer)}.
+     * @return the name of the blob of the file, or an empty optional if the file does not exist.
+     */
+    @Override
+    public Optional<String> getContentId(Path file) {
+        try {
+            return Optional.ofNullable(getBlobs().get(file)).map(ObjectId::getName);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        blobs = null;
+    }
+
+    private ObjectId getBlob(Path file) throws IOException {
+        var blob = getBlobs().get(file);
+        if (blob == null) {
+            throw new NoSuchFileException(file.toString());
+        }
+        return blob;
+    }
+
+    /**
+     * Lists the regular files of the commit within the root directory, together with the ids of their blobs.
+     * If the files of another commit of the same repository were the last ones listed within the same directory,
+     * the listing is derived from theirs by walking only the subtrees that differ between the two commits.
+     */
+    private synchronized Map<Path, ObjectId> getBlobs() throws IOException {
+        if (blobs == null) {
+            var prefix = getPrefix();
+            var previous = lastListing;
+            try (var revWalk = new RevWalk(repository); var treeWalk = new TreeWalk(repository)) {
+                Map<Path, ObjectId> files;
+                if (previous != null && previous.repository == repository && previous.root.equals(root)) {
+                    files = new HashMap<>(previous.blobs);
+                    treeWalk.addTree(revWalk.parseCommit(previous.commit).getTree());
+                    treeWalk.setFilter(prefix.isEmpty() ? TreeFilter.ANY_DIFF
+                            : AndTreeFilter.create(PathFilter.create(prefix), TreeFilter.ANY_DIFF));
+                } else {
+                    files = new HashMap<>();
+                    if (!prefix.isEmpty()) {
+                        treeWalk.setFilter(PathFilter.create(prefix));
+                    }
+                }
+                int current = treeWalk.addTree(revWalk.parseCommit(commit).getTree());
+                treeWalk.setRecursive(true);
+                while (treeWalk.next()) {
+                    var path = treeWalk.getPathString();
+                    if (path.length() <= prefix.length()) {
+                        continue;
+                    }
+                    var relativePath = prefix.isEmpty() ? path : path.substring(prefix.length() + 1);
+                    var file = root.resolve(root.getFileSystem().getPath(relativePath));
+                    if ((treeWalk.getRawMode(current) & FileMode.TYPE_MASK) == FileMode.TYPE_FILE) {
+                        files.put(file, treeWalk.getObjectId(current));
+                    } else {
+                        files.remove(file);
+                    }
+                }
+                blobs = files;
+            }
+            lastListing = new Listing(repository, root, commit, blobs);
+        }
+        return blobs;
+    }
+
+    /**
+     * Returns the path of the root directory relative to the work tree, in the format used by git.
+     */
+    private String getPrefix() {
+        if (repository.isBare()) {
+            return "";
+        }
+        var workTree = repository.getWorkTree().toPath().toAbsolutePath().normalize();
+        var directory = root.toAbsolutePath().normalize();
+        if (!directory.startsWith(workTree)) {
+            return "";
+        }
+        var prefix = new StringBuilder();
+        for (var name : workTree.relativize(directory)) {
+            if (prefix.length() > 0) {
+                prefix.append('/');
+            }
+            prefix.append(name.toString());
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * The files of a commit listed within a directory. Listings are never modified once created.
+     */
+    private static class Listing {
+        private final Repository repository;
+        private final Path root;
+        private final ObjectId commit;
+        private final Map<Path, ObjectId> blobs;
+
+        private Listing(Repository repository, Path root, ObjectId commit, Map<Path, ObjectId> blobs) {
+            this.repository = repository;
+            this.root = root;
+            this.commit = commit;
+            this.blobs = blobs;
+        }
+    }
+}
@@ -2,44 +2,76 @@ package org.rug.data.characteristics.comps;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.benf.cfr.reader.api.CfrDriver;
+import org.benf.cfr.reader.api.ClassFileSource;
 import org.benf.cfr.reader.api.OutputSinkFactory;
 import org.benf.cfr.reader.api.SinkReturns;
+import org.benf.cfr.reader.bytecode.analysis.parse.utils.Pair;
+import org.benf.cfr.reader.state.ClassFileSourceImpl;
+import org.benf.cfr.reader.util.getopt.OptionsImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
 
 /**
  * Retrieves the source code of a class starting starting from a list of Jar files.
- * The Jars are decompiled using CFR decompiler. CFR errors are fully suppressed and
- * empty string is always returned in such case.
+ * The classes are decompiled using CFR decompiler, one at a time and only when their source code is requested.
+ * CFR errors are fully suppressed and empty string is always returned in such case.
  *
- * NOTE: {@link #setClassPath(String[])} needs to be explicitly invoked as it
- * specifies the paths where this object will look for classes.
+ * The decompiled classes can be saved in a directory shared by all the instances (see
+ * {@link #setDecompilationCacheDir(Path)}), where they are identified by the hash of the bytes of the class and of
+ * its inner classes. Thus, a class that did not change between two versions of the system is decompiled only once.
  *
  * @author Jasper Mohlmann
  * @author Darius Sas
  */
 public class JarSourceCodeRetriever extends SourceCodeRetriever {
 
+    private final static Logger logger = LoggerFactory.getLogger(JarSourceCodeRetriever.class);
+
+    /**
+     * The version of the decompiler, part of the hash of the classes so that the classes decompiled by a
+     * different version are decompiled again.
+     */
+    protected final static String DECOMPILER_VERSION = "cfr-0.139";
+
+    private static Path decompilationCacheDir = null;
+
     private String[] classPath;
-    private SourceClassSink sourceClasses;
-    private boolean errorOccured = false;
+    private Map<String, ClassEntry> classIndex;
+    private Map<String, ZipFile> jars;
 
     public JarSourceCodeRetriever(Path classPathDir) {
         super(classPathDir);
-        sourceClasses = new SourceClassSink(classesCache);
+        this.classesCache = new ConcurrentHashMap<>(200);
         setClassPath(sourcePath);
     }
 
+    /**
+     * Sets the directory where the decompiled classes are saved and looked for before decompiling a class.
+     * @param dir the directory, or null to not save the decompiled classes.
+     */
+    public static void setDecompilationCacheDir(Path dir) {
+        decompilationCacheDir = dir;
+    }
+
     public String getSource(String className){
         return getSource(className, "");
     }
 
     /**
-     * Retrieves the source code as a string from the given class name.
+     * Retrieves the source code as a string from the given class name. The class is decompiled at the first request.
      *
      * @param className the full name of the class without the .java suffix (e.g. org.package.Class).
      * @param extension this parameter is unused.
@@ -48,11 +80,14 @@ public class JarSourceCodeRetriever extends SourceCodeRetriever {
      */
     @Override
     public String getSource(String className, String extension) {
-        if (errorOccured || classPath == null)
+        if (classPath == null)
             return NOT_FOUND;
-        if (sourceClasses.isEmpty())
-            decompile();
-        return sourceClasses.getSource(className, NOT_FOUND);
+        var source = classesCache.get(className);
+        if (source == null) {
+            source = decompile(className);
+            classesCache.putIfAbsent(className, source);
+        }
+        return source;
     }
 
     @Override
@@ -60,6 +95,41 @@ public class JarSourceCodeRetriever extends SourceCodeRetriever {
         return this.getSource(toFileName(element));
     }
 
+    @Override
+    public byte[] getSourceBytes(Vertex element) {
+        return getSource(element).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The content of a class is identified by the hash of its bytes and of the bytes of its inner classes.
+     * @param element the element to retrieve the content identifier of.
+     * @return the identifier or an empty optional if the class is not found.
+     */
+    @Override
+    public Optional<String> getContentId(Vertex element) {
+        var entry = getClassIndex().get(toFileName(element));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(hashOf(entry));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Decompiles the classes of the given elements in parallel.
+     * @param elements the elements whose source code is going to be requested.
+     */
+    @Override
+    public void prefetch(Collection<Vertex> elements) {
+        var classNames = elements.stream().map(this::toFileName)
+                .filter(name -> !classesCache.containsKey(name))
+                .collect(Collectors.toSet());
+        classNames.parallelStream().forEach(this::getSource);
+    }
+
     @Override
     protected String toFileName(Vertex element) {
         return element.value("name");
@@ -70,6 +140,16 @@ public class JarSourceCodeRetriever extends SourceCodeRetriever {
         return elementName;
     }
 
+    /**
+     * The classes are read from the JARs rather than from a source tree.
+     * @param element the element.
+     * @return an empty set.
+     */
+    @Override
+    public Set<String> getFileNamesOf(Vertex element) {
+        return Set.of();
+    }
+
     @Override
     public Optional<Path> getPathOf(Vertex component) {
         throw new UnsupportedOperationException("Cannot retrieve the path of an element when using JAR as sources.");
@@ -128,36 +208,230 @@ public class JarSourceCodeRetriever extends SourceCodeRetriever {
     }
 
     /**
-     * Decompile all the classes and cache their source.
+     * Lazily indexes the classes contained in the JARs of the class path. Inner classes are indexed together with
+     * the class containing them, as they are decompiled within it. When a class is contained in multiple JARs,
+     * the last one in the class path is used.
+     * @return a map from the full name of every top-level class to its entries.
      */
-    private void decompile(){
+    private synchronized Map<String, ClassEntry> getClassIndex() {
+        if (classIndex == null) {
+            classIndex = new HashMap<>();
+            jars = new HashMap<>();
+            for (var jarPath : classPath) {
+                ZipFile jar;
+                try {
+                    jar = new ZipFile(jarPath);
+                } catch (IOException e) {
+                    continue;
+                }
+                jars.put(jarPath, jar);
+                var classFiles = jar.stream().map(e -> e.getName())
+                        .filter(name -> name.endsWith(".class"))
+                        .map(name -> name.substring(0, name.length() - ".class".length()))
+                        .collect(Collectors.toSet());
+                var innerClasses = new HashMap<String, List<String>>();
+                for (var classFile : classFiles) {
+                    int innerIndex = classFile.indexOf('$');
+                    if (innerIndex > 0 && classFiles.contains(classFile.substring(0, innerIndex))) {
+                        innerClasses.computeIfAbsent(classFile.substring(0, innerIndex), k -> new ArrayList<>()).add(classFile);
+                    }
+                }
+                for (var classFile : classFiles) {
+                    int innerIndex = classFile.indexOf('$');
+                    if (innerIndex > 0 && classFiles.contains(classFile.substring(0, innerIndex))) {
+                        continue;
+                    }
+                    var inners = innerClasses.getOrDefault(classFile, new ArrayList<>());
+                    Collections.sort(inners);
+                    classIndex.put(classFile.replace('/', '.'), new ClassEntry(jarPath, classFile, inners));
+                }
+            }
+        }
+        return classIndex;
+    }
+
+    /**
+     * Decompiles the given class, or reads it from the decompilation cache directory if it was already decompiled.
+     * @param className the full name of the class.
+     * @return the source code of the class or {@link #NOT_FOUND} if the class is not found or cannot be decompiled.
+     */
+    private String decompile(String className) {
+        var entry = getClassIndex().get(className);
+        if (entry == null) {
+            return NOT_FOUND;
+        }
+        try {
+            Path cachedFile = null;
+            if (decompilationCacheDir != null) {
+                cachedFile = decompilationCacheDir.resolve(hashOf(entry) + ".java");
+                if (Files.isRegularFile(cachedFile)) {
+                    return Files.readString(cachedFile);
+                }
+            }
+            var sink = new SourceClassSink();
+            CfrDriver driver = new CfrDriver.Builder()
+                    .withClassFileSource(new JarClassFileSource(jars.get(entry.jar)))
+                    .withOutputSink(sink).build();
+            driver.analyse(new ArrayList<>(List.of(entry.classFile + ".class")));
+            var source = sink.getSource();
+            if (source == null) {
+                return NOT_FOUND;
+            }
+            // CFR terminates each class with an empty line when it decompiles a whole JAR, keep the same lines
+            source = source + "\n";
+            if (cachedFile != null) {
+                Files.createDirectories(decompilationCacheDir);
+                var temporaryFile = Files.createTempFile(decompilationCacheDir, cachedFile.getFileName().toString(), ".tmp");
+                try {
+                    Files.writeString(temporaryFile, source);
+                    Files.move(temporaryFile, cachedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            }
+            return source;
+        } catch (Exception e) {
+            logger.debug("Could not decompile class {}: {}", className, e.getMessage());
+            return NOT_FOUND;
+        }
+    }
+
+    /**
+     * Returns the hash of the bytes of the given class and of its inner classes, computing it at the first request.
+     */
+    private String hashOf(ClassEntry entry) throws IOException {
+        synchronized (entry) {
+            if (entry.hash == null) {
+                entry.hash = computeHash(entry);
+            }
+            return entry.hash;
+        }
+    }
+
+    private String computeHash(ClassEntry entry) throws IOException {
+        MessageDigest digest;
         try {
-            CfrDriver driver = new CfrDriver.Builder().withOutputSink(sourceClasses).build();
-            driver.analyse(Arrays.asList(classPath));
-        }catch (Exception e){
-            errorOccured = true;
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(DECOMPILER_VERSION.getBytes(StandardCharsets.UTF_8));
+        var jar = jars.get(entry.jar);
+        digest.update(readClass(jar, entry.classFile));
+        for (var innerClass : entry.innerClasses) {
+            digest.update(innerClass.getBytes(StandardCharsets.UTF_8));
+            digest.update(readClass(jar, innerClass));
         }
+        var hash = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
     }
 
+    private static byte[] readClass(ZipFile jar, String classFile) throws IOException {
+        var zipEntry = jar.getEntry(classFile + ".class");
+        if (zipEntry == null) {
+            throw new NoSuchFileException(classFile);
+        }
+        try (var in = jar.getInputStream(zipEntry)) {
+            return in.readAllBytes();
+        }
+    }
 
     /**
-     * Explicitly free the memory of the current source code classes.
+     * Explicitly free the memory of the current source code classes and close the JAR files.
      */
     public void clear(){
-        sourceClasses.clear();
+        classesCache.clear();
+        synchronized (this) {
+            if (jars != null) {
+                for (var jar : jars.values()) {
+                    try {
+                        jar.close();
+                    } catch (IOException e) {
+                        logger.debug("Could not close {}", jar.getName());
+                    }
+                }
+            }
+            jars = null;
+            classIndex = null;
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        clear();
     }
 
     /**
-     * Class dedicated to store decompiled classes using CFR decompiler.
+     * A top-level class contained in a JAR, together with its inner classes.
      */
-    protected static class SourceClassSink implements OutputSinkFactory {
+    private static class ClassEntry {
+        private final String jar;
+        private final String classFile;
+        private final List<String> innerClasses;
+        private String hash;
+
+        ClassEntry(String jar, String classFile, List<String> innerClasses) {
+            this.jar = jar;
+            this.classFile = classFile;
+            this.innerClasses = innerClasses;
+        }
+    }
+
+    /**
+     * Provides CFR with the classes of a JAR, without letting it analyse the whole JAR. The classes that are not
+     * in the JAR (e.g. the ones of the JDK) are loaded by the default source of CFR, shared by all the decompilations.
+     */
+    private static class JarClassFileSource implements ClassFileSource {
+
+        private static ClassFileSource defaultSource;
+
+        private final ZipFile jar;
+
+        JarClassFileSource(ZipFile jar) {
+            this.jar = jar;
+        }
 
-        private Map<String, String> classes;
+        @Override
+        public void informAnalysisRelativePathDetail(String usePath, String classFilePath) {
+
+        }
 
-        SourceClassSink(Map<String, String> classes) {
-            this.classes = classes;
+        @Override
+        public Collection<String> addJar(String jarPath) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getPossiblyRenamedPath(String path) {
+            return path;
         }
 
+        @Override
+        public Pair<byte[], String> getClassFileContent(String path) throws IOException {
+            var classFile = path.endsWith(".class") ? path.substring(0, path.length() - ".class".length()) : path;
+            if (jar.getEntry(classFile + ".class") != null) {
+                return Pair.make(readClass(jar, classFile), path);
+            }
+            synchronized (JarClassFileSource.class) {
+                if (defaultSource == null) {
+                    defaultSource = new ClassFileSourceImpl(new OptionsImpl(new HashMap<>()));
+                }
+                return defaultSource.getClassFileContent(path);
+            }
+        }
+    }
+
+    /**
+     * Class dedicated to store the decompiled class using CFR decompiler.
+     */
+    protected static class SourceClassSink implements OutputSinkFactory {
+
+        private String source;
+
         @Override
         public List<OutputSinkFactory.SinkClass> getSupportedSinks(OutputSinkFactory.SinkType
         sinkType, Collection< OutputSinkFactory.SinkClass > collection) {
@@ -174,28 +448,15 @@ public class JarSourceCodeRetriever extends SourceCodeRetriever {
             if (sinkType == OutputSinkFactory.SinkType.JAVA && sinkClass == OutputSinkFactory.SinkClass.DECOMPILED) {
                 return x -> {
                     SinkReturns.Decompiled d = (SinkReturns.Decompiled) x;
-                    classes.put(String.join(".", d.getPackageName(), d.getClassName()), d.getJava());
+                    source = d.getJava();
                 };
             }
             return ignore -> {
             };
         }
 
-        public boolean isEmpty(){
-            return classes.isEmpty();
-        }
-
-        public boolean contains(String className){
-            return classes.containsKey(className);
-        }
-
-        public String getSource(String className, String defaultString){
-            return classes.getOrDefault(className, defaultString);
-        }
-
-        public void clear(){
-            classes.clear();
+        public String getSource(){
+            return source;
         }
     }
 }
-
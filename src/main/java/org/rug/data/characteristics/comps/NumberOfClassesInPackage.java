@@ -21,8 +21,7 @@ public class NumberOfClassesInPackage extends AbstractComponentCharacteristic {
      */
     @Override
     protected void calculate(Vertex vertex) {
-        long numOfClasses = vertex.graph().traversal().V(vertex).in(EdgeLabel.BELONGSTO.toString()).count().next();
-        vertex.property(name, numOfClasses);
+        vertex.property(name, ContainmentRollUp.count(vertex));
     }
 
     /**
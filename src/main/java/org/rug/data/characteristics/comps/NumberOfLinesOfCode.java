@@ -1,7 +1,6 @@
 package org.rug.data.characteristics.comps;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.labels.EdgeLabel;
@@ -9,7 +8,8 @@ import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.IVersion;
 
 import java.util.EnumSet;
-import java.util.regex.Pattern;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Counts the lines of code of a given vertex (package or class) and saves the results within
@@ -17,7 +17,19 @@ import java.util.regex.Pattern;
  */
 public class NumberOfLinesOfCode extends AbstractComponentCharacteristic {
 
+    /**
+     * The maximum number of line counts remembered.
+     */
+    protected final static int COUNTS_CACHE_SIZE = 1 << 17;
+
     private SourceCodeRetriever sourceRetriever;
+    private final CarryOver<Long> unchangedFiles = new CarryOver<>();
+    private final Map<String, Long> countsCache = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > COUNTS_CACHE_SIZE;
+        }
+    };
 
     /**
      * Instantiates the calculator of LOC.
@@ -31,13 +43,20 @@ public class NumberOfLinesOfCode extends AbstractComponentCharacteristic {
     @Override
     public void calculate(IVersion version) {
         this.sourceRetriever = version.getSourceCodeRetriever();
+        unchangedFiles.nextVersion(version);
+        if (sourceRetriever != null) {
+            sourceRetriever.prefetch(version.getGraph().traversal().V()
+                    .hasLabel(P.within(VertexLabel.getFilesStrings()))
+                    .hasNot(this.name).toList());
+        }
         super.calculate(version);
     }
 
     /**
      * This method is applied to every vertex that has the label given during instantiation.
      * If the method is invoked on a package vertex, than it triggers the calculation of the lines of code on all the
-     * classes belonging to the package.
+     * classes belonging to the package. The lines of code of a file that did not change since the previous version
+     * are carried over by name (see {@link CarryOver}).
      *
      * @param vertex the vertex to calculate this characteristic on. The result is stored using {@code this.name}
      *              as property key.
@@ -49,18 +68,14 @@ public class NumberOfLinesOfCode extends AbstractComponentCharacteristic {
 
         long loc;
         if (VertexLabel.getFilesStrings().contains(vertex.label())){
-            loc = countLOC(vertex);
+            loc = unchangedFiles.get(vertex).orElseGet(() -> countLOC(vertex));
+            unchangedFiles.put(vertex, loc);
         }else if (VertexLabel.getComponentStrings().contains(vertex.label()) &&
-                   vertex.edges(Direction.IN, EdgeLabel.BELONGSTO.toString()).hasNext()) {
-            vertex.graph().traversal().V(vertex)
-                    .in(EdgeLabel.BELONGSTO.toString())
-                    .hasNot(this.name)
-                    .forEachRemaining(this::calculate);
-            loc = vertex.graph().traversal().V(vertex)
-                    .in(EdgeLabel.BELONGSTO.toString())
-                    .hasLabel(P.within(VertexLabel.getFilesStrings())) // only files in the container
-                    .values(this.name)
-                    .sum().next().longValue();
+                   !ContainmentRollUp.getMembers(vertex).isEmpty()) {
+            ContainmentRollUp.getMembers(vertex).stream()
+                    .filter(member -> !member.property(this.name).isPresent())
+                    .forEach(this::calculate);
+            loc = ContainmentRollUp.sumOfFiles(vertex, this.name); // only files in the container
         }else {
             return;
         }
@@ -83,14 +98,55 @@ public class NumberOfLinesOfCode extends AbstractComponentCharacteristic {
         this.sourceRetriever = sourceRetriever;
     }
 
-    private Pattern linePattern = Pattern.compile("[^\\s*].*[\\n\\r]+");
+    /**
+     * Counts the lines of code of the given element. The count of a file whose content can be identified without
+     * reading it (e.g. by its git blob id) is remembered, so unchanged files are counted only once across versions.
+     */
     private long countLOC(Vertex element){
-        var sourceCode = sourceRetriever.getSource(element);
+        var contentId = sourceRetriever.getContentId(element);
+        if (contentId.isPresent()) {
+            var linesOfCode = countsCache.get(contentId.get());
+            if (linesOfCode != null) {
+                return linesOfCode;
+            }
+        }
+        long linesOfCode = countLOC(sourceRetriever.getSourceBytes(element));
+        contentId.ifPresent(id -> countsCache.put(id, linesOfCode));
+        return linesOfCode;
+    }
 
-        var matcher = linePattern.matcher(sourceCode);
-        var linesOfCode = 0;
-        while(matcher.find())
-            linesOfCode++;
+    /**
+     * Counts the lines of code in the given UTF-8 encoded source code. A line is counted if it is terminated by
+     * a line feed or a carriage return and it contains at least one character that is not a whitespace or
+     * an asterisk (so that blank lines and the lines of block comments made only of asterisks are not counted).
+     * The result is the number of matches of the regular expression {@code [^\s*].*[\n\r]+}, computed with a
+     * single pass over the bytes.
+     * @param source the bytes of the source code.
+     * @return the number of lines of code.
+     */
+    public static long countLOC(byte[] source){
+        long linesOfCode = 0;
+        boolean isCode = false;
+        for (byte b : source) {
+            switch (b) {
+                case '\n':
+                case '\r':
+                    if (isCode) {
+                        linesOfCode++;
+                        isCode = false;
+                    }
+                    break;
+                case ' ':
+                case '\t':
+                case 0x0B:
+                case '\f':
+                case '*':
+                    break;
+                default:
+                    isCode = true;
+                    break;
+            }
+        }
         return linesOfCode;
     }
 
@@ -7,6 +7,7 @@ import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.IVersion;
 
 import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Calculates the Percentage of Commits a Class has Changed.
@@ -23,6 +24,11 @@ public class PCCCMetric extends AbstractComponentCharacteristic {
         this.frchMetricName = frchMetricName;
     }
 
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of(frchMetricName);
+    }
+
     @Override
     public void calculate(IVersion version) {
         if (version.getVersionIndex() == 1)
@@ -9,6 +9,7 @@ import org.rug.data.project.IVersion;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Calculates the PCPC (Percentage of Commits Package has Changed) metric.
@@ -23,6 +24,11 @@ public class PCPCMetric extends AbstractComponentCharacteristic {
         packageChanges = new HashMap<>(1000);
     }
 
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of(CHOMetricPackage.NAME);
+    }
+
     @Override
     public void calculate(IVersion version) {
         if (version.getVersionIndex() == 1)
@@ -0,0 +1,69 @@
+package org.rug.data.characteristics.comps;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An index of values identified by a file path that answers suffix queries (i.e. {@link Path#endsWith(Path)})
+ * in a time proportional to the number of name elements of the suffix, rather than to the number of paths indexed.
+ * The paths are stored in a trie of their name elements in reverse order: the node reached by following the
+ * elements of a suffix from the last one to the first one holds the value of a path ending with that suffix.
+ * When multiple paths end with the same suffix, the value of the first path added is returned.
+ * @param <T> the type of the values.
+ */
+public class PathSuffixIndex<T> {
+
+    private final Node<T> root = new Node<>();
+    private int size = 0;
+
+    /**
+     * Adds the given path to the index.
+     * @param path the path to add.
+     * @param value the value of the path.
+     */
+    public void add(Path path, T value) {
+        var node = root;
+        for (int i = path.getNameCount() - 1; i >= 0; i--) {
+            node = node.children.computeIfAbsent(path.getName(i).toString(), k -> new Node<>());
+            if (node.path == null) {
+                node.path = path;
+                node.value = value;
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Finds the value of a path that ends with the given suffix.
+     * @param suffix the suffix to look for. If absolute, the path of the value returned must be equal to it.
+     * @return the value of a path ending with the given suffix or an empty optional if there is no such path.
+     */
+    public Optional<T> find(Path suffix) {
+        if (suffix.getNameCount() == 0) {
+            return Optional.empty();
+        }
+        var node = root;
+        for (int i = suffix.getNameCount() - 1; i >= 0 && node != null; i--) {
+            node = node.children.get(suffix.getName(i).toString());
+        }
+        if (node == null || (suffix.isAbsolute() && !node.path.endsWith(suffix))) {
+            return Optional.empty();
+        }
+        return Optional.of(node.value);
+    }
+
+    /**
+     * @return the number of paths added to the index.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static class Node<T> {
+        private final Map<String, Node<T>> children = new HashMap<>(4);
+        private Path path;
+        private T value;
+    }
+}
@@ -5,10 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This class manages the retrieval of the source code of a class from
@@ -22,7 +20,8 @@ public abstract class SourceCodeRetriever {
     protected Map<String, String> classesCache;
     protected Map<String, Optional<Path>> filesCache;
     protected Path sourcePath;
-    protected Set<Path> deepPaths;
+    protected SourceTree sourceTree;
+    private PathSuffixIndex<Path> deepPaths;
 
     protected final static String NOT_FOUND = "";
 
@@ -34,11 +33,25 @@ public abstract class SourceCodeRetriever {
         this.classesCache = new HashMap<>(200);
         this.filesCache = new HashMap<>(200);
         this.sourcePath = sourcePath;
-        try( var stream = Files.walk(sourcePath)){
-            this.deepPaths = stream.filter(p -> p.toFile().isFile()).collect(Collectors.toSet());
-        } catch (IOException e) {
-            this.deepPaths = new HashSet<>();
-        }
+        this.sourceTree = new FileSystemSourceTree(sourcePath);
+    }
+
+    /**
+     * Sets the tree from which the source files are listed and read. By default, files are read from
+     * the {@link #sourcePath} directory.
+     * The cached files and source code are cleared.
+     * @param sourceTree the tree containing the source files.
+     */
+    public void setSourceTree(SourceTree sourceTree) {
+        this.sourceTree = sourceTree;
+        clearCache();
+    }
+
+    /**
+     * @return the path to the source directory.
+     */
+    public Path getSourcePath() {
+        return sourcePath;
     }
 
     /**
@@ -49,10 +62,10 @@ public abstract class SourceCodeRetriever {
     public String getSource(String elementName, String extension) {
         String key = toFileName(elementName, extension);
         if (!classesCache.containsKey(key)) {
-            var classFile = getPathOf(elementName, extension);
+            var classFile = getSourcePathOf(elementName, extension);
             try {
                 if (classFile.isPresent()) {
-                    var source = Files.readString(classFile.get());
+                    var source = sourceTree.readString(classFile.get());
                     classesCache.putIfAbsent(key, source);
                 } else {
                     throw new IOException();
@@ -72,7 +85,7 @@ public abstract class SourceCodeRetriever {
      * @return the source code of the element as string or {@link #NOT_FOUND} if no class is found.
      */
     public String getSource(Vertex element) {
-        if (element.values("ClassType", "Type").next().toString().toLowerCase().contains("retrieved")) {
+        if (isRetrieved(element)) {
             return "";
         }
         var fileName = toFileName(element);
@@ -82,10 +95,99 @@ public abstract class SourceCodeRetriever {
     }
 
     /**
-     * Clear cached classes' source code.
+     * Returns the source code of the given vertex element as described by {@link #getSource(Vertex)}, without
+     * decoding it. The source code is not cached.
+     * @param element the element to retrieve the source code of.
+     * @return the bytes of the source code of the element or an empty array if no file is found.
+     */
+    public byte[] getSourceBytes(Vertex element) {
+        var file = getSourcePathOf(element);
+        try {
+            if (file.isPresent()) {
+                return sourceTree.readBytes(file.get());
+            } else {
+                throw new IOException();
+            }
+        } catch (IOException e) {
+            logger.error("Could not read source from: {}", element.value("name").toString());
+        }
+        return new byte[0];
+    }
+
+    /**
+     * Returns the identifier of the content of the file containing the source code of the given element, if
+     * the source tree provides one (see {@link SourceTree#getContentId(Path)}).
+     * @param element the element to retrieve the content identifier of.
+     * @return the identifier or an empty optional if not available.
+     */
+    public Optional<String> getContentId(Vertex element) {
+        return getSourcePathOf(element).flatMap(sourceTree::getContentId);
+    }
+
+    /**
+     * Returns the path of the file read by {@link #getSource(String, String)}. Implementations can override this
+     * method to look for alternative files.
+     * @param elementName the name of the element.
+     * @param extension the extension with a . as a prefix.
+     * @return the Path object to the given element or an empty optional if no element was found.
+     */
+    protected Optional<Path> getSourcePathOf(String elementName, String extension) {
+        return getPathOf(elementName, extension);
+    }
+
+    private Optional<Path> getSourcePathOf(Vertex element) {
+        if (isRetrieved(element)) {
+            return Optional.empty();
+        }
+        var fileName = toFileName(element);
+        var extensionIndex = fileName.lastIndexOf(".");
+        return getSourcePathOf(fileName.substring(0, extensionIndex), fileName.substring(extensionIndex));
+    }
+
+    /**
+     * Returns the names of the files in which the source code of the given element is looked for, that is the last
+     * name element of the path suffixes looked up by {@link #getPathOf(Vertex)} and {@link #getSourceBytes(Vertex)}.
+     * Implementations that look for alternative files must return their names too.
+     * @param element the element.
+     * @return the names of the files, or an empty set if the source code of the element is not looked for in
+     * the source tree (e.g. retrieved classes).
+     */
+    public Set<String> getFileNamesOf(Vertex element) {
+        if (isRetrieved(element)) {
+            return Set.of();
+        }
+        return Set.of(fileNameOf(toFileName(element)));
+    }
+
+    /**
+     * Returns the last name element of the given file name (or path suffix).
+     */
+    protected String fileNameOf(String fileName) {
+        var path = sourcePath.getFileSystem().getPath(fileName).getFileName();
+        return path == null ? "" : path.toString();
+    }
+
+    private static boolean isRetrieved(Vertex element) {
+        return element.values("ClassType", "Type").next().toString().toLowerCase().contains("retrieved");
+    }
+
+    /**
+     * Notifies that the source code of the given elements is going to be requested. Implementations whose retrieval
+     * is expensive can retrieve the source code in advance, in parallel. The default implementation does nothing.
+     * @param elements the elements whose source code is going to be requested.
+     */
+    public void prefetch(Collection<Vertex> elements) {
+
+    }
+
+    /**
+     * Clear cached classes' source code and the index of the source files.
      */
 	public void clearCache(){
 	    classesCache.clear();
+	    filesCache.clear();
+	    deepPaths = null;
+	    sourceTree.clear();
     }
 
     /**
@@ -124,7 +226,7 @@ public abstract class SourceCodeRetriever {
      * @return the Path instance of the given component or null if no element was found.
      */
     public Optional<Path> getPathOf(Vertex component) {
-        if (component.values("ClassType", "Type").next().toString().toLowerCase().contains("retrieved")) {
+        if (isRetrieved(component)) {
             return Optional.empty();
         }
         return findFile(toFileName(component));
@@ -132,18 +234,40 @@ public abstract class SourceCodeRetriever {
 
     /**
      * Finds a file by searching recursively in the current source path for a file path that
-     * ends with the given file name(or path) suffix.
+     * ends with the given file name(or path) suffix. The lookup uses an index of the files built once, at
+     * the first lookup.
      * @param fileName the file (optionally including the path) to find.
      * @return an optional Path.
      */
     protected Optional<Path> findFile(String fileName){
         if (!filesCache.containsKey(fileName)) {
-            Optional<Path> elementFile = deepPaths.stream().filter(p -> p.endsWith(fileName)).findFirst();
+            Optional<Path> elementFile = getIndex().find(sourcePath.getFileSystem().getPath(fileName));
             filesCache.put(fileName, elementFile);
         }
         return filesCache.getOrDefault(fileName, Optional.empty());
     }
 
+    /**
+     * Lazily indexes the files of the source tree. When multiple files end with the same suffix, the smallest one
+     * according to {@link Path#compareTo(Path)} is found.
+     * @return the index of the source files.
+     */
+    private PathSuffixIndex<Path> getIndex(){
+        if (deepPaths == null) {
+            deepPaths = new PathSuffixIndex<>();
+            var files = new ArrayList<Path>();
+            try {
+                sourceTree.forEachFile(files::add);
+            } catch (IOException e) {
+                logger.warn("Could not list the files in {}: {}", sourcePath, e.getMessage());
+            }
+            // sorted so that ambiguous suffixes always resolve to the same file
+            Collections.sort(files);
+            files.forEach(file -> deepPaths.add(file, file));
+        }
+        return deepPaths;
+    }
+
     /**
      * Returns the given path as a relative path starting from the current {@link #sourcePath} directory.
      * @param path the path to relativize
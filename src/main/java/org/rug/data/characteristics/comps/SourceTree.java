@@ -0,0 +1,53 @@
+package org.rug.data.characteristics.comps;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The storage from which a {@link SourceCodeRetriever} lists and reads the source files of a version.
+ */
+public interface SourceTree {
+
+    /**
+     * Performs the given action on the path of every file in this tree.
+     * @param action the action to perform.
+     * @throws IOException if the files cannot be listed.
+     */
+    void forEachFile(Consumer<Path> action) throws IOException;
+
+    /**
+     * Reads the content of the given file.
+     * @param file the path of a file listed by {@link #forEachFile(Consumer)}.
+     * @return the bytes of the file. The array may be shared and must not be modified.
+     * @throws IOException if the file does not exist or cannot be read.
+     */
+    byte[] readBytes(Path file) throws IOException;
+
+    /**
+     * Reads the content of the given file as a UTF-8 string.
+     * @param file the path of a file listed by {@link #forEachFile(Consumer)}.
+     * @return the content of the file.
+     * @throws IOException if the file does not exist or cannot be read.
+     */
+    default String readString(Path file) throws IOException {
+        return new String(readBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns an identifier of the content of the given file, if the tree can provide one without reading
+     * the file. Files with the same identifier have the same content, even in different trees.
+     * @param file the path of a file listed by {@link #forEachFile(Consumer)}.
+     * @return the identifier of the content of the file, or an empty optional if not available.
+     */
+    default Optional<String> getContentId(Path file) {
+        return Optional.empty();
+    }
+
+    /**
+     * Frees any resource cached by this tree. The tree can still be used afterwards.
+     */
+    default void clear() { }
+}
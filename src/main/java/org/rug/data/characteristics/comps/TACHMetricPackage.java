@@ -1,6 +1,5 @@
 package org.rug.data.characteristics.comps;
 
-import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.labels.EdgeLabel;
@@ -8,6 +7,7 @@ import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.IVersion;
 
 import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Computes the 'Total amount of changes' metric on packages.
@@ -20,6 +20,15 @@ public class TACHMetricPackage extends AbstractComponentCharacteristic {
         super(NAME, VertexLabel.allComponents(), EnumSet.noneOf(EdgeLabel.class));
     }
 
+    /**
+     * The values of the files are computed by {@link ChangeMetrics}.
+     * @return the name of the change metrics.
+     */
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of(ChangeMetrics.NAME);
+    }
+
     /**
      * Calculate the characteristic on the graph of this version and save it as a node, vertex or graph property.
      *
@@ -40,12 +49,7 @@ public class TACHMetricPackage extends AbstractComponentCharacteristic {
      */
     @Override
     protected void calculate(Vertex vertex) {
-        var tach = vertex.graph().traversal().V(vertex)
-                .in(EdgeLabel.BELONGSTO.toString())
-                .hasLabel(P.within(VertexLabel.getFilesStrings()))
-                .values(this.name)
-                .sum().tryNext().orElse(0);
-        vertex.property(this.name, tach);
+        vertex.property(this.name, ContainmentRollUp.sumOfFiles(vertex, this.name));
     }
 
     /**
@@ -0,0 +1,115 @@
+package org.rug.data.characteristics.smells;
+
+import org.rug.data.SmellVisitor;
+import org.rug.data.characteristics.CharacteristicsTable;
+import org.rug.data.smells.*;
+
+/**
+ * Models a characteristic whose values are numbers. Subclasses compute the value for each type of smell they
+ * support through the <code>valueOf</code> methods, returning null for the types they do not support.
+ * The values are stored as primitives and converted into strings only by the <code>visit</code> methods.
+ * @param <N> the type of the values.
+ */
+public abstract class AbstractNumericSmellCharacteristic<N extends Number> extends AbstractSmellCharacteristic {
+
+    private final SmellVisitor<N> valueVisitor = new SmellVisitor<>() {
+        @Override
+        public N visit(CDSmell smell) {
+            return valueOf(smell);
+        }
+
+        @Override
+        public N visit(HLSmell smell) {
+            return valueOf(smell);
+        }
+
+        @Override
+        public N visit(UDSmell smell) {
+            return valueOf(smell);
+        }
+
+        @Override
+        public N visit(GCSmell smell) {
+            return valueOf(smell);
+        }
+    };
+
+    /**
+     * Sets up the name of this smell characteristic.
+     * @param name the name to use for this characteristic. Must be unique across the others characteristics.
+     */
+    protected AbstractNumericSmellCharacteristic(String name) {
+        super(name);
+    }
+
+    /**
+     * Computes the value of this characteristic on the given smell.
+     * @param smell the smell.
+     * @return the value, or null if this characteristic is not defined for the type of the given smell.
+     */
+    public N getValue(ArchitecturalSmell smell){
+        return smell.accept(valueVisitor);
+    }
+
+    protected N valueOf(CDSmell smell) {
+        return null;
+    }
+
+    protected N valueOf(HLSmell smell) {
+        return null;
+    }
+
+    protected N valueOf(UDSmell smell) {
+        return null;
+    }
+
+    protected N valueOf(GCSmell smell) {
+        return null;
+    }
+
+    /**
+     * Converts a value of this characteristic into a string.
+     * @param value the value.
+     * @return the string representing the value.
+     */
+    protected abstract String format(N value);
+
+    /**
+     * Stores the given value in the table.
+     */
+    protected abstract void store(CharacteristicsTable table, int row, N value);
+
+    @Override
+    public void calculate(ArchitecturalSmell smell, CharacteristicsTable table, int row) {
+        var value = getValue(smell);
+        if (value == null) {
+            table.setNoValue(getName(), row);
+        } else {
+            store(table, row, value);
+        }
+    }
+
+    @Override
+    public final String visit(CDSmell smell) {
+        return formatOrNoValue(valueOf(smell));
+    }
+
+    @Override
+    public final String visit(HLSmell smell) {
+        return formatOrNoValue(valueOf(smell));
+    }
+
+    @Override
+    public final String visit(UDSmell smell) {
+        return formatOrNoValue(valueOf(smell));
+    }
+
+    @Override
+    public final String visit(GCSmell smell) {
+        return formatOrNoValue(valueOf(smell));
+    }
+
+    private String formatOrNoValue(N value){
+        return value == null ? NO_VALUE : format(value);
+    }
+}
@@ -11,7 +11,7 @@ import org.rug.data.smells.UDSmell;
  */
 public abstract class AbstractSmellCharacteristic implements ISmellCharacteristic {
     private String name;
-    protected final static String NO_VALUE = "0";
+    protected final static String NO_VALUE = ISmellCharacteristic.NO_VALUE;
 
     /**
      * Sets up the name of this smell characteristic.
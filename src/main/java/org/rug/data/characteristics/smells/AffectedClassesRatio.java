@@ -9,7 +9,7 @@ import org.rug.data.smells.HLSmell;
  * by classes from afferent and efferent packages over the total
  * number of classes in the affected package.
  */
-public class AffectedClassesRatio extends AbstractSmellCharacteristic {
+public class AffectedClassesRatio extends DoubleSmellCharacteristic {
     /**
      * Sets up this smell characteristic.
      */
@@ -21,18 +21,23 @@ public class AffectedClassesRatio extends AbstractSmellCharacteristic {
      * Calculates this characteristic and returns the value computed.
      *
      * @param smell the HL smell to visit the characteristic on.
-     * @return the value computed.
+     * @return the value computed, or {@link #UNDEFINED} if the smell does not affect a package.
      */
     @Override
-    public String visit(HLSmell smell) {
+    protected Double valueOf(HLSmell smell) {
         var affectedPackage = smell.getCentre();
         if (!VertexLabel.getComponentStrings().contains(affectedPackage.label())) {
-            return "-1";
+            return UNDEFINED;
         }
         var inDep = smell.getClassesDependedUponByAfferentPackages();
         var outDep = smell.getClassesDependingOnEfferentPackages();
         var affectedComponents = smell.getTraversalSource().V(affectedPackage).in(EdgeLabel.BELONGSTO.toString()).count().next();
         var ratio = (inDep.size() + outDep.size()) / affectedComponents.doubleValue();
-        return String.format("%.2f", ratio);
+        return ratio;
+    }
+
+    @Override
+    protected String format(Double value) {
+        return formatTwoDecimals(value);
     }
 }
@@ -2,12 +2,15 @@ package org.rug.data.characteristics.smells;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.labels.EdgeLabel;
 import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.ArcanDependencyGraphParser;
 import org.rug.data.smells.ArchitecturalSmell;
 import org.rug.data.smells.CDSmell;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -18,6 +21,14 @@ import java.util.stream.Collectors;
  */
 public class AffectedDesign extends AbstractSmellCharacteristic{
 
+    private final static Set<ArchitecturalSmell.Level> designLevels =
+            EnumSet.of(ArchitecturalSmell.Level.CLASS, ArchitecturalSmell.Level.CFILE);
+
+    private Graph designLevelGraph;
+    private List<ArchitecturalSmell> designLevelSmells;
+    private Graph packageSetsGraph;
+    private Set<Set<Vertex>> packageSets;
+
     public AffectedDesign() {
         super("affectedDesignLevel");
     }
@@ -27,23 +38,52 @@ public class AffectedDesign extends AbstractSmellCharacteristic{
         if (smell.getLevel().isDesignLevel()){
             return Level.DESIGN.toString();
         } else {
-            GraphTraversalSource g = smell.getTraversalSource();
-            // Get list of smells affecting the system and filter out smells that are not relevant.
-            // Then check if all the affected classes of the relevant ones are contained
-            // in all the packages of the given smell.
-            // If so, the smell is present at both levels.
-            List<ArchitecturalSmell> smellList = ArcanDependencyGraphParser.getArchitecturalSmellsIn(smell.getAffectedGraph());
-            Set<ArchitecturalSmell> classLevelSmells = smellList.stream()
+            // The smell is present at both levels if the packages of the affected classes of
+            // a class-level cycle are exactly the packages of the given smell.
+            return getPackageSetsOfDesignLevelCDSmells(smell.getAffectedGraph()).contains(smell.getAffectedElements()) ?
+                    Level.DESIGN_AND_ARCH.toString() : Level.ARCHITECTURAL.toString();
+        }
+    }
+
+    /**
+     * Returns the sets of components containing the elements affected by each design-level CD smell
+     * in the given graph. The sets are computed once and kept until a different graph is requested.
+     * @param graph the graph of the system.
+     * @return a set containing, for each design-level CD smell, the set of components of its affected elements.
+     */
+    private Set<Set<Vertex>> getPackageSetsOfDesignLevelCDSmells(Graph graph){
+        if (graph != packageSetsGraph) {
+            GraphTraversalSource g = graph.traversal();
+            packageSets = getDesignLevelCDSmells(graph).stream()
                     .filter(s -> s.getType() == ArchitecturalSmell.Type.CD && s.getLevel().isDesignLevel())
-                    .filter(s ->
-                        g.V(s.getAffectedElements())
+                    .map(s -> g.V(s.getAffectedElements())
                                 .out(EdgeLabel.BELONGSTO.toString())
                                 .hasLabel(P.within(VertexLabel.getComponentStrings()))
-                                .toSet().equals(smell.getAffectedElements()))
+                                .toSet())
                     .collect(Collectors.toSet());
+            packageSetsGraph = graph;
+        }
+        return packageSets;
+    }
 
-            return classLevelSmells.size() > 0 ? Level.DESIGN_AND_ARCH.toString() : Level.ARCHITECTURAL.toString();
+    /**
+     * Returns a list containing the design-level CD smells in the given graph. If the parser is currently
+     * filtering out these smells, they are built here (and kept until a different graph is requested),
+     * so that the value of this characteristic does not depend on the smells selected for the analysis.
+     * @param graph the graph of the system.
+     * @return a list of smells containing at least all the design-level CD smells.
+     */
+    private List<ArchitecturalSmell> getDesignLevelCDSmells(Graph graph){
+        if (ArcanDependencyGraphParser.getSmellTypes().contains(ArchitecturalSmell.Type.CD) &&
+                ArcanDependencyGraphParser.getSmellLevels().containsAll(designLevels)){
+            return ArcanDependencyGraphParser.getArchitecturalSmellsIn(graph);
+        }
+        if (graph != designLevelGraph){
+            designLevelSmells = ArcanDependencyGraphParser.buildArchitecturalSmells(graph,
+                    EnumSet.of(ArchitecturalSmell.Type.CD), designLevels);
+            designLevelGraph = graph;
         }
+        return designLevelSmells;
     }
 
     /**
@@ -7,7 +7,7 @@ import org.rug.data.smells.HLSmell;
 /**
  * The percentage of classes within the package HL smell that are depended upon by afferent packages.
  */
-public class AfferentAffectedRatio extends AbstractSmellCharacteristic {
+public class AfferentAffectedRatio extends DoubleSmellCharacteristic {
     /**
      * Sets up the name of this smell characteristic.
      */
@@ -16,14 +16,19 @@ public class AfferentAffectedRatio extends AbstractSmellCharacteristic {
     }
 
     @Override
-    public String visit(HLSmell smell) {
+    protected Double valueOf(HLSmell smell) {
         var affectedPackage = smell.getCentre();
         if (!VertexLabel.getComponentStrings().contains(affectedPackage.label())) {
-            return "-1";
+            return UNDEFINED;
         }
         var inDep = smell.getClassesDependedUponByAfferentPackages();
         var affectedComponents = smell.getTraversalSource().V(affectedPackage).in(EdgeLabel.BELONGSTO.toString()).count().next();
         var ratio = inDep.size() / affectedComponents.doubleValue();
-        return String.format("%.2f", ratio);
+        return ratio;
+    }
+
+    @Override
+    protected String format(Double value) {
+        return formatTwoDecimals(value);
     }
 }
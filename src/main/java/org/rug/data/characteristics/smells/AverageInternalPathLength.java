@@ -1,21 +1,27 @@
 package org.rug.data.characteristics.smells;
 
-import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ShortestPath;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.Path;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.rug.data.labels.EdgeLabel;
 import org.rug.data.labels.VertexLabel;
+import org.rug.data.project.ArcanDependencyGraphParser;
 import org.rug.data.smells.HLSmell;
 
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Calculates the average distance between classes in the affected package
  * that are depended upon by afferent packages and classes that depend
  * upon efferent packages.
  */
-public class AverageInternalPathLength extends AbstractSmellCharacteristic {
+public class AverageInternalPathLength extends DoubleSmellCharacteristic {
+
+    private static Graph indexedGraph;
+    private static ShortestPathIndex pathIndex;
+    private static Map<Long, Double> averageLengths;
+
     /**
      * Sets up this smell characteristic.
      *
@@ -24,31 +30,61 @@ public class AverageInternalPathLength extends AbstractSmellCharacteristic {
         super("avrgInternalPathLength");
     }
 
+    /**
+     * The shortest paths are searched on the whole dependency graph.
+     * @return true.
+     */
     @Override
-    public String visit(HLSmell smell) {
-        var g = smell.getAffectedGraph().traversal();
-        var affectedPackage = smell.getAffectedElements().iterator().next();
-        if (!VertexLabel.getComponentStrings().contains(affectedPackage.label())) {
-            return "-1";
+    public boolean isGraphAnalysis() {
+        return true;
+    }
+
+    @Override
+    protected Double valueOf(HLSmell smell) {
+        if (!isPackageLevel(smell)) {
+            return UNDEFINED;
         }
+        index(smell.getAffectedGraph());
+        return averageLengths.computeIfAbsent(smell.getId(), id -> averageLength(smell));
+    }
 
-        var pathLabels = Stream.of(EdgeLabel.DEPENDSON,
-                                   EdgeLabel.ISCHILDOF,
-                                   EdgeLabel.ISIMPLEMENTATIONOF)
-                .map(EdgeLabel::toString)
-                .toArray(String[]::new);
+    private static boolean isPackageLevel(HLSmell smell){
+        var affectedPackage = smell.getAffectedElements().iterator().next();
+        return VertexLabel.getComponentStrings().contains(affectedPackage.label());
+    }
 
-        var outDep = smell.getClassesDependingOnEfferentPackages();
-        var inDep = smell.getClassesDependedUponByAfferentPackages();
+    /**
+     * Indexes the dependsOn, isChildOf and isImplementationOf edges of the given graph and computes the average
+     * internal path length of all its package-level HL smells in parallel. The results are kept until a
+     * different graph is requested.
+     * @param graph the graph of the system.
+     */
+    private static synchronized void index(Graph graph){
+        if (graph == indexedGraph) {
+            return;
+        }
+        pathIndex = new ShortestPathIndex(graph, EdgeLabel.DEPENDSON, EdgeLabel.ISCHILDOF, EdgeLabel.ISIMPLEMENTATIONOF);
+        averageLengths = new ConcurrentHashMap<>();
+        indexedGraph = graph;
 
-        var paths = g.withComputer().V(inDep).
-                shortestPath()
-                .with(ShortestPath.target, __.is(P.within(outDep)))
-                .with(ShortestPath.includeEdges, false)
-                .with(ShortestPath.edges, __.outE(pathLabels))
-                .toList();
+        // sources and targets are retrieved sequentially, only the searches run in parallel
+        var endpoints = ArcanDependencyGraphParser.getArchitecturalSmellsIn(graph).stream()
+                .filter(s -> s instanceof HLSmell).map(s -> (HLSmell) s)
+                .filter(AverageInternalPathLength::isPackageLevel)
+                .collect(Collectors.toMap(HLSmell::getId,
+                        s -> List.of(s.getClassesDependedUponByAfferentPackages(), s.getClassesDependingOnEfferentPackages()),
+                        (a, b) -> a));
+        endpoints.entrySet().parallelStream().forEach(e -> averageLengths.put(e.getKey(),
+                pathIndex.averageShortestPathSize(e.getValue().get(0), e.getValue().get(1))));
+    }
+
+    private static double averageLength(HLSmell smell){
+        return pathIndex.averageShortestPathSize(smell.getClassesDependedUponByAfferentPackages(),
+                smell.getClassesDependingOnEfferentPackages());
+    }
 
-        var averageLength = paths.stream().mapToDouble(Path::size).average().orElse(0d);
-        return String.format("%.2f", averageLength);
+    @Override
+    protected String format(Double value) {
+        return formatTwoDecimals(value);
     }
 }
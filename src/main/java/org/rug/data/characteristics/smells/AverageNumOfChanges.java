@@ -8,12 +8,14 @@ import org.rug.data.smells.GCSmell;
 import org.rug.data.smells.HLSmell;
 import org.rug.data.smells.UDSmell;
 
+import java.util.Set;
+
 /**
  * This characteristic computes the average number of times the components affected by a given smell
  * were changed (according to the underlying VCS) in relation to the previous versions.
  * This number is expressed in percentage with values ranging from 0 to 100.
  */
-public class AverageNumOfChanges extends AbstractSmellCharacteristic {
+public class AverageNumOfChanges extends DoubleSmellCharacteristic {
     /**
      * Sets up the name of this smell characteristic.
      */
@@ -21,23 +23,41 @@ public class AverageNumOfChanges extends AbstractSmellCharacteristic {
         super("avrgNumOfChanges");
     }
 
+    /**
+     * The number of changes is read from the VCS and may differ between structurally identical versions.
+     * @return false.
+     */
+    @Override
+    public boolean isStructural() {
+        return false;
+    }
+
+    /**
+     * The average is computed from the PCCC metric of the affected components.
+     * @return the name of the PCCC metric.
+     */
+    @Override
+    public Set<String> getDependencies() {
+        return Set.of(PCCCMetric.NAME);
+    }
+
     @Override
-    public String visit(CDSmell smell) {
+    protected Double valueOf(CDSmell smell) {
         return visitInternal(smell);
     }
 
     @Override
-    public String visit(HLSmell smell) {
+    protected Double valueOf(HLSmell smell) {
         return visitInternal(smell);
     }
 
     @Override
-    public String visit(UDSmell smell) {
+    protected Double valueOf(UDSmell smell) {
         return visitInternal(smell);
     }
 
     @Override
-    public String visit(GCSmell smell) {
+    protected Double valueOf(GCSmell smell) {
         return visitInternal(smell);
     }
 
@@ -45,10 +65,10 @@ public class AverageNumOfChanges extends AbstractSmellCharacteristic {
      * Computes this metric by retrieving the average number of changes in percentage of the
      * affected elements.
      * @param smell the smell to calculate this smell on.
-     * @return a string representing the mean values of the PCCC metric of the affected components.
+     * @return the mean value of the PCCC metric of the affected components, or null if it was not computed.
      */
-    private String visitInternal(ArchitecturalSmell smell){
+    private Double visitInternal(ArchitecturalSmell smell){
         var vertices = smell.getTraversalSource().V(smell.getAffectedElements());
-        return String.valueOf(vertices.values(PCCCMetric.NAME).mean().tryNext().orElse(0));
+        return vertices.values(PCCCMetric.NAME).mean().tryNext().map(Number::doubleValue).orElse(null);
     }
 }
@@ -0,0 +1,51 @@
+package org.rug.data.characteristics.smells;
+
+import org.rug.data.characteristics.CharacteristicsTable;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Models a characteristic whose values are real numbers.
+ */
+public abstract class DoubleSmellCharacteristic extends AbstractNumericSmellCharacteristic<Double> {
+
+    /**
+     * The value of characteristics that are defined for a type of smell, but not for its level
+     * (e.g. package-level characteristics of class-level HL smells).
+     */
+    protected final static double UNDEFINED = -1d;
+
+    protected DoubleSmellCharacteristic(String name) {
+        super(name);
+    }
+
+    /**
+     * Converts the value into a string with {@link String#valueOf(double)}.
+     * @param value the value.
+     * @return the string representing the value.
+     */
+    @Override
+    protected String format(Double value) {
+        return String.valueOf(value.doubleValue());
+    }
+
+    /**
+     * Formats the given value with two decimals, except {@link #UNDEFINED} which is formatted as an integer.
+     * @param value the value.
+     * @return the string representing the value.
+     */
+    protected static String formatTwoDecimals(double value) {
+        return value == UNDEFINED ? "-1" : String.format("%.2f", value);
+    }
+
+    @Override
+    protected void store(CharacteristicsTable table, int row, Double value) {
+        table.setDouble(getName(), row, value, this::format);
+    }
+
+    @Override
+    public void restore(DataInput in, CharacteristicsTable table, int row) throws IOException {
+        table.readCell(getName(), row, in, this::format);
+    }
+}
@@ -8,7 +8,7 @@ import org.rug.data.smells.HLSmell;
  * The percentage of classes of a package affected by HL smell which depend upon packages the affected
  * package depends upon.
  */
-public class EfferentAffectedRatio extends AbstractSmellCharacteristic {
+public class EfferentAffectedRatio extends DoubleSmellCharacteristic {
 
     /**
      * Sets up the name of this smell characteristic.
@@ -18,14 +18,19 @@ public class EfferentAffectedRatio extends AbstractSmellCharacteristic {
     }
 
     @Override
-    public String visit(HLSmell smell) {
+    protected Double valueOf(HLSmell smell) {
         var affectedPackage = smell.getCentre();
         if (!VertexLabel.getComponentStrings().contains(affectedPackage.label())) {
-            return "-1";
+            return UNDEFINED;
         }
         var outDep = smell.getClassesDependingOnEfferentPackages();
         var affectedComponents = smell.getTraversalSource().V(affectedPackage).in(EdgeLabel.BELONGSTO.toString()).count().next();
         var ratio = outDep.size() / affectedComponents.doubleValue();
-        return String.format("%.2f", ratio);
+        return ratio;
+    }
+
+    @Override
+    protected String format(Double value) {
+        return formatTwoDecimals(value);
     }
 }
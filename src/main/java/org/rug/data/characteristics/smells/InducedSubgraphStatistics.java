@@ -0,0 +1,127 @@
+package org.rug.data.characteristics.smells;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.SmellVisitor;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.smells.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects, in a single pass over the edges of the elements of a smell, the statistics of the subgraph induced
+ * by those elements that are used by the edge-based characteristics. As in the traversals of these characteristics
+ * (<code>V(elements).bothE()</code>), an edge between two elements is encountered from both its endpoints.
+ * The statistics of the last visited smell are kept, so that every characteristic reading them
+ * does not traverse the graph again.
+ */
+public class InducedSubgraphStatistics {
+
+    private final static Set<String> dependencyLabels = EdgeLabel.getAllDependencyStrings();
+    private final static Set<String> inheritanceLabels =
+            Set.of(EdgeLabel.ISCHILDOF.toString(), EdgeLabel.ISIMPLEMENTATIONOF.toString());
+
+    private static ArchitecturalSmell lastSmell;
+    private static InducedSubgraphStatistics lastStatistics;
+
+    private long edgesWeight = 0;
+    private long dependencyEdges = 0;
+    private long dependencyEdgesWeight = 0;
+    private long inheritanceEdges = 0;
+
+    private InducedSubgraphStatistics(Set<Vertex> elements) {
+        for (Vertex vertex : elements) {
+            vertex.edges(Direction.BOTH).forEachRemaining(edge -> {
+                if (inheritanceLabels.contains(edge.label())) {
+                    inheritanceEdges++;
+                }
+                var other = edge.outVertex().equals(vertex) ? edge.inVertex() : edge.outVertex();
+                if (!elements.contains(other)) {
+                    return;
+                }
+                // an edge without weight is a single edge, as in WeightedPageRank
+                var weightProperty = edge.property("Weight");
+                long weight = weightProperty.isPresent() ? ((Number) weightProperty.value()).longValue() : 1;
+                edgesWeight += weight;
+                if (dependencyLabels.contains(edge.label())) {
+                    dependencyEdges++;
+                    dependencyEdgesWeight += weight;
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the statistics of the subgraph induced by the elements of the given smell. The elements are the
+     * affected elements for CD smells, the centre and the bad dependencies for UD smells, the centre and
+     * the afferent and efferent elements for HL smells, and the elements in the affected component for GC smells.
+     * @param smell the smell.
+     * @return the statistics of the induced subgraph.
+     */
+    public static synchronized InducedSubgraphStatistics of(ArchitecturalSmell smell){
+        if (smell != lastSmell) {
+            lastStatistics = new InducedSubgraphStatistics(smell.accept(new ElementsVisitor()));
+            lastSmell = smell;
+        }
+        return lastStatistics;
+    }
+
+    /**
+     * The number of edges among the elements, where the edges with a Weight property count as many times as their weight.
+     * @return the sum of the weights of the edges, where edges without a Weight property weigh 1.
+     */
+    public long getNumberOfEdges() {
+        return edgesWeight;
+    }
+
+    /**
+     * The average weight of the dependsOn and packageIsAfferentOf edges among the elements, where edges without
+     * a Weight property weigh 1.
+     * @return the average weight, or 0 if there are no such edges.
+     */
+    public double getAverageDependencyWeight() {
+        return dependencyEdges > 0 ? (double) dependencyEdgesWeight / dependencyEdges : 0d;
+    }
+
+    /**
+     * The number of isChildOf and isImplementationOf edges incident to the elements, including
+     * the ones pointing outside of the induced subgraph.
+     * @return the number of inheritance edges.
+     */
+    public long getNumberOfInheritanceEdges() {
+        return inheritanceEdges;
+    }
+
+    /**
+     * Selects the elements whose induced subgraph is considered for each type of smell.
+     */
+    private static class ElementsVisitor implements SmellVisitor<Set<Vertex>> {
+        @Override
+        public Set<Vertex> visit(CDSmell smell) {
+            return new HashSet<>(smell.getAffectedElements());
+        }
+
+        @Override
+        public Set<Vertex> visit(HLSmell smell) {
+            Set<Vertex> vertices = new HashSet<>();
+            vertices.add(smell.getCentre());
+            vertices.addAll(smell.getInDep());
+            vertices.addAll(smell.getOutDep());
+            return vertices;
+        }
+
+        @Override
+        public Set<Vertex> visit(UDSmell smell) {
+            Set<Vertex> vertices = new HashSet<>();
+            vertices.add(smell.getCentre());
+            vertices.addAll(smell.getBadDep());
+            return vertices;
+        }
+
+        @Override
+        public Set<Vertex> visit(GCSmell smell) {
+            return new HashSet<>(smell.getElementsInAffected());
+        }
+    }
+}
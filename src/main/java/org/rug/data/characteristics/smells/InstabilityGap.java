@@ -5,7 +5,7 @@ import org.rug.data.smells.UDSmell;
 /**
  * This characteristic computes the difference in instability between the centre of a UD and its bad dependencies.
  */
-public class InstabilityGap extends AbstractSmellCharacteristic {
+public class InstabilityGap extends DoubleSmellCharacteristic {
     /**
      * Sets up the name of this smell characteristic.
      */
@@ -14,13 +14,13 @@ public class InstabilityGap extends AbstractSmellCharacteristic {
     }
 
     @Override
-    public String visit(UDSmell smell) {
+    protected Double valueOf(UDSmell smell) {
         double centreInstability = smell.getCentre().value("instability");
         double badDepAvrgInstability = smell.getTraversalSource().V(smell.getBadDep())
                 .values("instability")
                 .toStream()
                 .mapToDouble(o -> Double.parseDouble(o.toString()))
                 .average().orElse(0);
-        return String.valueOf(centreInstability - badDepAvrgInstability);
+        return centreInstability - badDepAvrgInstability;
     }
 }
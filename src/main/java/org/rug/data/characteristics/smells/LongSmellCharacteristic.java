@@ -0,0 +1,23 @@
+package org.rug.data.characteristics.smells;
+
+import org.rug.data.characteristics.CharacteristicsTable;
+
+/**
+ * Models a characteristic whose values are integers (e.g. counts of elements).
+ */
+public abstract class LongSmellCharacteristic extends AbstractNumericSmellCharacteristic<Long> {
+
+    protected LongSmellCharacteristic(String name) {
+        super(name);
+    }
+
+    @Override
+    protected String format(Long value) {
+        return String.valueOf(value.longValue());
+    }
+
+    @Override
+    protected void store(CharacteristicsTable table, int row, Long value) {
+        table.setLong(getName(), row, value);
+    }
+}
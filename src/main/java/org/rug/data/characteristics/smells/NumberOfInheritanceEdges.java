@@ -1,12 +1,11 @@
 package org.rug.data.characteristics.smells;
 
-import org.rug.data.labels.EdgeLabel;
 import org.rug.data.smells.CDSmell;
 
 /**
  * The number of edges that mark inheritance among the nodes affected by the smell.
  */
-public class NumberOfInheritanceEdges extends AbstractSmellCharacteristic {
+public class NumberOfInheritanceEdges extends LongSmellCharacteristic {
     /**
      * Sets up the name of this smell characteristic.
      */
@@ -22,10 +21,7 @@ public class NumberOfInheritanceEdges extends AbstractSmellCharacteristic {
      * @return the value computed.
      */
     @Override
-    public String visit(CDSmell smell) {
-        return smell.getTraversalSource()
-                .V(smell.getAffectedElements())
-                .bothE(EdgeLabel.ISCHILDOF.toString(), EdgeLabel.ISIMPLEMENTATIONOF.toString())
-                .count().next().toString();
+    protected Long valueOf(CDSmell smell) {
+        return InducedSubgraphStatistics.of(smell).getNumberOfInheritanceEdges();
     }
 }
@@ -1,19 +1,21 @@
 package org.rug.data.characteristics.smells;
 
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.labels.VertexLabel;
 import org.rug.data.smells.*;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * This characteristics computes the overlap of the smells affected by the given smell with the other smells in the system.
  * Namely, what percentage of the nodes affected by the given smell are also affected by at least another smell.
  */
-public class OverlapRatio extends AbstractSmellCharacteristic {
+public class OverlapRatio extends DoubleSmellCharacteristic {
 
     ArchitecturalSmell.Type type = null;
 
@@ -34,12 +36,12 @@ public class OverlapRatio extends AbstractSmellCharacteristic {
     }
 
     @Override
-    public String visit(CDSmell smell) {
+    protected Double valueOf(CDSmell smell) {
         return calculateOverlapRatio(smell.getAffectedElements(), smell);
     }
 
     @Override
-    public String visit(HLSmell smell) {
+    protected Double valueOf(HLSmell smell) {
         Set<Vertex> vertices = new HashSet<>();
         vertices.addAll(smell.getInDep());
         vertices.addAll(smell.getOutDep());
@@ -48,7 +50,7 @@ public class OverlapRatio extends AbstractSmellCharacteristic {
     }
 
     @Override
-    public String visit(UDSmell smell) {
+    protected Double valueOf(UDSmell smell) {
         Set<Vertex> vertices = new HashSet<>();
         vertices.add(smell.getCentre());
         vertices.addAll(smell.getBadDep());
@@ -61,35 +63,86 @@ public class OverlapRatio extends AbstractSmellCharacteristic {
      * @return the overlap ratio.
      */
     @Override
-    public String visit(GCSmell smell) {
+    protected Double valueOf(GCSmell smell) {
         return calculateOverlapRatio(smell.getElementsInAffected(), smell);
     }
 
     /**
      * Calculates the overlap ratio of the given vertices (assumed to be of the given smell) with other smells.
+     * The ratios for all the types of smells are computed at once and kept until a different smell is visited,
+     * so the other instances of this characteristic only need to read them.
      * @param vertices the vertices to consider as affected by other smells
      * @param smell the reference smell
      * @return the ratio of affected elements from vertices by more than one smell
      */
-    private String calculateOverlapRatio(Set<Vertex> vertices, ArchitecturalSmell smell){
-        double elementsAffectedByMoreThanOneSmell = 0d;
-        GraphTraversalSource g = smell.getTraversalSource();
+    private Double calculateOverlapRatio(Set<Vertex> vertices, ArchitecturalSmell smell){
+        if (smell != lastSmell || !vertices.equals(lastVertices)) {
+            lastRatios = calculateOverlapRatios(vertices, smell);
+            lastSmell = smell;
+            lastVertices = vertices;
+        }
+        return lastRatios.get(type == null ? ALL_TYPES : type.toString());
+    }
+
+    private static final String ALL_TYPES = "";
+    private static ArchitecturalSmell lastSmell;
+    private static Set<Vertex> lastVertices;
+    private static Map<String, Double> lastRatios;
+
+    private static Graph indexedGraph;
+    private static Map<Vertex, Map<String, Integer>> smellEdgesPerElement;
+
+    /**
+     * Calculates the overlap ratios of the given vertices with each type of smell and with all the smells.
+     * @return a map from the type of smell (or the empty string for all smells) to the overlap ratio.
+     */
+    private static Map<String, Double> calculateOverlapRatios(Set<Vertex> vertices, ArchitecturalSmell smell){
+        var index = getSmellEdgesPerElement(smell.getAffectedGraph());
+
+        // the edges from the nodes of the given smell do not count as overlap
+        var ownEdges = new HashMap<Vertex, Map<String, Integer>>();
+        for (Vertex smellNode : smell.getSmellNodes()) {
+            smellNode.edges(Direction.OUT).forEachRemaining(e -> {
+                if (vertices.contains(e.inVertex()))
+                    countSmellEdge(ownEdges, e.inVertex(), smellNode);
+            });
+        }
+
+        var elementsAffectedByMoreThanOneSmell = new HashMap<String, Double>();
         for (Vertex c : vertices) {
-            if (type != null) {
-                if (g.V(c).in().hasLabel(VertexLabel.SMELL.toString())
-                        .has("smellType", type.toString())
-                        .is(P.not(P.within(smell.getSmellNodes())))
-                        .count().next() > 0) {
-                    elementsAffectedByMoreThanOneSmell++;
-                }
-            } else {
-                if(g.V(c).in().hasLabel(VertexLabel.SMELL.toString())
-                        .is(P.not(P.within(smell.getSmellNodes())))
-                        .count().next() > 0){
-                    elementsAffectedByMoreThanOneSmell++;
-                }
-            }
+            var counts = index.getOrDefault(c, Map.of());
+            var own = ownEdges.getOrDefault(c, Map.of());
+            counts.forEach((smellType, count) -> {
+                if (count - own.getOrDefault(smellType, 0) > 0)
+                    elementsAffectedByMoreThanOneSmell.merge(smellType, 1d, Double::sum);
+            });
         }
-        return String.valueOf(elementsAffectedByMoreThanOneSmell / vertices.size());
+
+        var ratios = new HashMap<String, Double>();
+        ratios.put(ALL_TYPES, elementsAffectedByMoreThanOneSmell.getOrDefault(ALL_TYPES, 0d) / vertices.size());
+        for (ArchitecturalSmell.Type t : ArchitecturalSmell.Type.values()) {
+            ratios.put(t.toString(), elementsAffectedByMoreThanOneSmell.getOrDefault(t.toString(), 0d) / vertices.size());
+        }
+        return ratios;
+    }
+
+    /**
+     * Returns, for every element of the given graph, the number of edges it receives from smell nodes, grouped
+     * by the type of the smell. The index is built once per graph.
+     */
+    private static Map<Vertex, Map<String, Integer>> getSmellEdgesPerElement(Graph graph){
+        if (graph != indexedGraph) {
+            smellEdgesPerElement = new HashMap<>();
+            graph.traversal().V().hasLabel(VertexLabel.SMELL.toString()).forEachRemaining(smellNode ->
+                    smellNode.edges(Direction.OUT).forEachRemaining(e -> countSmellEdge(smellEdgesPerElement, e.inVertex(), smellNode)));
+            indexedGraph = graph;
+        }
+        return smellEdgesPerElement;
+    }
+
+    private static void countSmellEdge(Map<Vertex, Map<String, Integer>> counts, Vertex element, Vertex smellNode){
+        var elementCounts = counts.computeIfAbsent(element, k -> new HashMap<>());
+        elementCounts.merge(ALL_TYPES, 1, Integer::sum);
+        smellNode.property("smellType").ifPresent(smellType -> elementCounts.merge(smellType.toString(), 1, Integer::sum));
     }
 }
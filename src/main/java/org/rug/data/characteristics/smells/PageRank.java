@@ -1,32 +1,26 @@
 package org.rug.data.characteristics.smells;
 
-import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
-import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
-import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
-import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.rug.data.labels.EdgeLabel;
-import org.rug.data.labels.VertexLabel;
-import org.rug.data.project.AbstractProject;
 import org.rug.data.smells.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
 
 /**
  * This characteristic computes the PageRank of the components of a given smell. The algorithm
  * navigates the {@link EdgeLabel}.DEPENDSON and {@link EdgeLabel}.PACKAGEISAFFERENTOF labels.
  */
-public class PageRank extends AbstractSmellCharacteristic {
+public class PageRank extends DoubleSmellCharacteristic {
 
     private final static Logger logger = LoggerFactory.getLogger(PageRank.class);
 
@@ -52,6 +46,15 @@ public class PageRank extends AbstractSmellCharacteristic {
         this.rankSelector = rankSelector;
     }
 
+    /**
+     * The centrality of the components is computed on the whole dependency graph.
+     * @return true.
+     */
+    @Override
+    public boolean isGraphAnalysis() {
+        return true;
+    }
+
     /**
      * Calculates this characteristic and returns the value computed.
      *
@@ -59,7 +62,7 @@ public class PageRank extends AbstractSmellCharacteristic {
      * @return the value computed.
      */
     @Override
-    public String visit(CDSmell smell) {
+    protected Double valueOf(CDSmell smell) {
         return visitInternal(smell);
     }
 
@@ -70,7 +73,7 @@ public class PageRank extends AbstractSmellCharacteristic {
      * @return the value computed.
      */
     @Override
-    public String visit(HLSmell smell) {
+    protected Double valueOf(HLSmell smell) {
         return visitInternal(smell);
     }
 
@@ -81,12 +84,12 @@ public class PageRank extends AbstractSmellCharacteristic {
      * @return the value computed.
      */
     @Override
-    public String visit(UDSmell smell) {
+    protected Double valueOf(UDSmell smell) {
         return visitInternal(smell);
     }
 
     @Override
-    public String visit(GCSmell smell) {
+    protected Double valueOf(GCSmell smell) {
         return visitInternal(smell);
     }
 
@@ -94,119 +97,98 @@ public class PageRank extends AbstractSmellCharacteristic {
      * Computes the pagerank on the affected elements of the smell and returns the maximum value.
      * This behaviour was suggested by Roveda et al. 2018
      * @param smell the smell to calculate the page rank of.
-     * @return a string containing the double value computed.
+     * @return the value computed.
      */
-    private String visitInternal(ArchitecturalSmell smell){
-
-        var pageRank = 0d;
-        Graph g = getPageRankGraph(smell);
-        Set<String> affectedElements = smell.getAffectedElements()
-                .stream().map(vertex -> vertex.value("name").toString())
-                .collect(Collectors.toSet());
-        pageRank = rankSelector.apply(g.traversal().V().has("name", P.within(affectedElements))
-                .values("centrality").toSet()
-                .stream().mapToDouble(value -> (Double)value));
-
-        return String.valueOf(pageRank);
+    private Double visitInternal(ArchitecturalSmell smell){
+        var centrality = getCentrality(smell);
+        var pageRank = rankSelector.apply(smell.getAffectedElements().stream()
+                .map(centrality::get).filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue).distinct());
+        return pageRank;
     }
 
+    private static Map<Graph, Map<AffectedDesign.Level, Map<Vertex, Double>>> cachedCentrality = new HashMap<>();
+    private static Map<AffectedDesign.Level, Map<String, Double>> previousCentrality = new EnumMap<>(AffectedDesign.Level.class);
+    private static int iterations = 0;
+    private static OptionalInt iterationsSaved = OptionalInt.empty();
+
     /**
-     * Clones the given graph and returns the clone.
-     * @param src the graph to clone
-     * @return the clone
+     * Returns the centrality of the types of the graph of the given smell. The centrality of the design level is
+     * computed on the dependsOn edges whereas the one of the architectural level on the packageIsAfferentOf edges.
+     * Both levels are computed in parallel the first time a smell of a version is visited, starting from the centrality
+     * of the types with the same name in the previously computed version.
+     * @param smell the smell.
+     * @return a map from each type vertex to its centrality at the level of the given smell.
      */
-    private static Graph clone(Graph src, Set<String> vLabels, Set<String> eLabels){
-        Graph des = TinkerGraph.open();
-        Map<Object, Object> mapId = new HashMap<>();
-
-        src.traversal().V().hasLabel(P.within(vLabels)).forEachRemaining(srcVert -> {
-            Vertex toVertex = des.addVertex(srcVert.label());
-            mapId.put(srcVert.id(), toVertex.id());
-            srcVert.properties().forEachRemaining(srcVProp ->{
-                toVertex.property(srcVProp.key(), srcVProp.value());
-            });
-        });
-
-        src.traversal().V().hasLabel(P.within(vLabels)).bothE(eLabels.toArray(new String[0])).forEachRemaining(srcEdge -> {
-            Object outVId = mapId.get(srcEdge.outVertex().id());
-            Object inVId = mapId.get(srcEdge.inVertex().id());
-            Edge toEdge = des.traversal().V().addE(srcEdge.label())
-                    .from(des.vertices(outVId).next())
-                    .to(des.vertices(inVId).next())
-                    .next();
-            srcEdge.properties().forEachRemaining(srcEProp -> {
-                toEdge.property(srcEProp.key(), srcEProp.value());
-            });
-        });
-
-        return des;
-    }
-
-
-    private static Map<Graph, Map<AffectedDesign.Level, Graph>> cachedPageRankGraphs = new HashMap<>();
-
-    private static Graph getPageRankGraph(ArchitecturalSmell smell){
+    private static Map<Vertex, Double> getCentrality(ArchitecturalSmell smell){
         Graph smellGraph = smell.getAffectedGraph();
-        if (!cachedPageRankGraphs.containsKey(smellGraph)){
-            cachedPageRankGraphs.clear(); // keep only the graphs of a single version (memory optimization)
-            var innerMap = new HashMap<AffectedDesign.Level, Graph>();
-
-            Graph explodedGraph = explodeGraph(smellGraph);
-
-            var programClasses = PageRankVertexProgram
-                    .build().property("centrality")
-                    .edges(__.outE(EdgeLabel.DEPENDSON.toString()).asAdmin()).create(explodedGraph);
-            var programPackage = PageRankVertexProgram
-                    .build().property("centrality")
-                    .edges(__.outE(EdgeLabel.PACKAGEISAFFERENTOF.toString()).asAdmin()).create(explodedGraph);
-
-            try {
-                Future<ComputerResult> futureClasses = explodedGraph
-                        .compute().workers(4) // max workers is 4
-                        .program(programClasses)
-                        .submit();
-                Graph g = futureClasses.get().graph();
-                innerMap.put(AffectedDesign.Level.DESIGN, g);
-
-                Future<ComputerResult> futurePackage = explodedGraph
-                        .compute().workers(4)
-                        .program(programPackage)
-                        .submit();
-                g = futurePackage.get().graph();
-                innerMap.put(AffectedDesign.Level.ARCHITECTURAL, g);
-                cachedPageRankGraphs.put(smellGraph, innerMap);
-
-            } catch (InterruptedException e) {
-                logger.error("InterruptedException while retrieving computer result: {}", e.getMessage());
-                e.printStackTrace();
-            } catch (ExecutionException e) {
-                logger.error("ExecutionException while retrieving computer result: {}", e.getMessage());
-                e.printStackTrace();
+        if (!cachedCentrality.containsKey(smellGraph)){
+            cachedCentrality.clear(); // keep only the results of a single version (memory optimization)
+
+            var designRank = new WeightedPageRank(smellGraph, EdgeLabel.DEPENDSON);
+            var architecturalRank = new WeightedPageRank(smellGraph, EdgeLabel.PACKAGEISAFFERENTOF);
+            var design = CompletableFuture.supplyAsync(() ->
+                    designRank.compute(previousCentrality.getOrDefault(AffectedDesign.Level.DESIGN, Map.of())));
+            var architectural = architecturalRank.compute(previousCentrality.getOrDefault(AffectedDesign.Level.ARCHITECTURAL, Map.of()));
+
+            var innerMap = new EnumMap<AffectedDesign.Level, Map<Vertex, Double>>(AffectedDesign.Level.class);
+            innerMap.put(AffectedDesign.Level.DESIGN, design.join());
+            innerMap.put(AffectedDesign.Level.ARCHITECTURAL, architectural);
+            cachedCentrality.put(smellGraph, innerMap);
+            logger.info("PageRank computed in {} (design) and {} (architectural) iterations.",
+                    designRank.getIterations(), architecturalRank.getIterations());
+
+            iterations = designRank.getIterations() + architecturalRank.getIterations();
+            iterationsSaved = OptionalInt.empty();
+            if (logger.isTraceEnabled() && !previousCentrality.isEmpty()) {
+                // measuring the savings requires a cold start of the same version, hence it is done only when tracing
+                designRank.compute();
+                architecturalRank.compute();
+                iterationsSaved = OptionalInt.of(designRank.getIterations() + architecturalRank.getIterations() - iterations);
+                logger.trace("PageRank warm start saved {} iterations.", iterationsSaved.getAsInt());
             }
+            innerMap.forEach(PageRank::updateWarmStart);
         }
-        return cachedPageRankGraphs.get(smellGraph).get(smell.getLevel().isDesignLevel() ? AffectedDesign.Level.DESIGN : AffectedDesign.Level.ARCHITECTURAL);
+        return cachedCentrality.get(smellGraph).get(smell.getLevel().isDesignLevel() ? AffectedDesign.Level.DESIGN : AffectedDesign.Level.ARCHITECTURAL);
     }
 
-
     /**
-     * Expands the dependsOn edges using the Weight property. For every dependsOn/packageIsAfferentOf edge e with Weight = n, n new edges
-     * will be added to the graph between the nodes connected by e. The original graph is not modified.
-     * @param src the starting graph to expand. This graph is not modified
-     * @return a new graph containing the exploded edges.
+     * Saves the centrality computed for the given level to warm-start the computation of the next version.
      */
-    private static Graph explodeGraph(Graph src){
+    private static void updateWarmStart(AffectedDesign.Level level, Map<Vertex, Double> centrality){
+        var byName = new HashMap<String, Double>(centrality.size() * 2);
+        centrality.forEach((vertex, value) -> vertex.<String>property("name").ifPresent(name -> byName.put(name, value)));
+        previousCentrality.put(level, byName);
+    }
 
-        Graph dst = clone(src, VertexLabel.getTypesStrings(), EdgeLabel.getAllDependencyStrings());
+    /**
+     * Returns the number of PageRank iterations executed to compute the centrality of the last version,
+     * summed over the design and architectural levels.
+     * @return the number of iterations.
+     */
+    public static int getIterations() {
+        return iterations;
+    }
 
-        dst.traversal().E().has("Weight").toSet().forEach(edge -> {
-            int weight = edge.value("Weight");
-            for (int i = 0; i < weight; i++) {
-                dst.traversal().addE(edge.label())
-                        .from(edge.outVertex()).to(edge.inVertex()).next();
-            }
-            dst.edges(edge).next().remove();
-        });
+    /**
+     * Returns the number of PageRank iterations that the warm start saved when computing the centrality
+     * of the last version, summed over the design and architectural levels. The savings are measured by computing
+     * the version again from a cold start, which is done only if the trace level of the logger of this class is enabled.
+     * @return the number of iterations saved (negative if the warm start took more iterations), or an empty optional
+     * if they were not measured.
+     */
+    public static OptionalInt getIterationsSaved() {
+        return iterationsSaved;
+    }
 
-        return dst;
+    /**
+     * Forgets the centrality of the previous version, so that the next version is computed from a uniform distribution.
+     * Should be invoked before analysing a different system.
+     */
+    public static void resetWarmStart() {
+        cachedCentrality.clear();
+        previousCentrality.clear();
+        iterations = 0;
+        iterationsSaved = OptionalInt.empty();
     }
 }
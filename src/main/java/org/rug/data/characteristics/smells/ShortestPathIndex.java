@@ -0,0 +1,112 @@
+package org.rug.data.characteristics.smells;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.labels.EdgeLabel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A compact, read-only adjacency of a graph over the given edge labels, used to compute unweighted shortest paths
+ * with breadth-first searches. Parallel edges and self loops are ignored, so every path is identified by the
+ * sequence of its vertices (as with the paths returned by TinkerPop's shortestPath() step without edges).
+ * Searches do not modify the index and can be executed concurrently.
+ */
+public class ShortestPathIndex {
+
+    private final Map<Vertex, Integer> index;
+    private final Vertex[] vertices;
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    /**
+     * Builds the adjacency of the given graph following the outgoing edges with the given labels.
+     * @param graph the graph to index. It is not modified.
+     * @param labels the labels of the edges to follow.
+     */
+    public ShortestPathIndex(Graph graph, EdgeLabel... labels) {
+        var edgeLabels = Stream.of(labels).map(EdgeLabel::toString).toArray(String[]::new);
+        var vertexList = new ArrayList<Vertex>();
+        graph.vertices().forEachRemaining(vertexList::add);
+        this.vertices = vertexList.toArray(new Vertex[0]);
+        this.index = new HashMap<>(vertices.length * 2);
+        for (int i = 0; i < vertices.length; i++) {
+            index.put(vertices[i], i);
+        }
+
+        this.offsets = new int[vertices.length + 1];
+        var adjacency = new ArrayList<int[]>(vertices.length);
+        int size = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            var adjacent = new LinkedHashSet<Integer>();
+            var current = vertices[i];
+            vertices[i].edges(Direction.OUT, edgeLabels).forEachRemaining(e -> {
+                if (!e.inVertex().equals(current))
+                    adjacent.add(index.get(e.inVertex()));
+            });
+            adjacency.add(adjacent.stream().mapToInt(Integer::intValue).toArray());
+            size += adjacent.size();
+            offsets[i + 1] = size;
+        }
+        this.neighbours = new int[size];
+        for (int i = 0; i < vertices.length; i++) {
+            System.arraycopy(adjacency.get(i), 0, neighbours, offsets[i], adjacency.get(i).length);
+        }
+    }
+
+    /**
+     * Computes the average size (number of vertices) of all the shortest paths from the sources to the targets.
+     * Every distinct shortest path contributes to the average, hence pairs connected by multiple
+     * shortest paths weigh more. A vertex that is both a source and a target contributes a path of size 1.
+     * @param sources the start vertices. If empty, every vertex of the graph is a start vertex.
+     * @param targets the end vertices.
+     * @return the average size of the shortest paths, or 0 if no target is reachable.
+     */
+    public double averageShortestPathSize(Collection<Vertex> sources, Collection<Vertex> targets) {
+        var isTarget = new boolean[vertices.length];
+        targets.forEach(t -> { var i = index.get(t); if (i != null) isTarget[i] = true; });
+
+        var distance = new int[vertices.length];
+        var count = new double[vertices.length];
+        var queue = new int[vertices.length];
+        double sizes = 0d, paths = 0d;
+
+        Collection<Integer> sourceIndexes = sources.isEmpty() ? index.values() :
+                sources.stream().map(index::get).filter(Objects::nonNull).collect(Collectors.toList());
+        for (int source : sourceIndexes) {
+            Arrays.fill(distance, -1);
+            Arrays.fill(count, 0d);
+            int head = 0, tail = 0;
+            queue[tail++] = source;
+            distance[source] = 0;
+            count[source] = 1d;
+            while (head < tail) {
+                int v = queue[head++];
+                if (isTarget[v]) {
+                    sizes += count[v] * (distance[v] + 1);
+                    paths += count[v];
+                }
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int w = neighbours[i];
+                    if (distance[w] < 0) {
+                        distance[w] = distance[v] + 1;
+                        queue[tail++] = w;
+                    }
+                    if (distance[w] == distance[v] + 1) {
+                        count[w] += count[v];
+                    }
+                }
+            }
+        }
+        return paths > 0 ? sizes / paths : 0d;
+    }
+}
@@ -8,7 +8,7 @@ import org.rug.data.smells.UDSmell;
 /**
  * This characteristic returns the number of elements affected by a smell.
  */
-public class Size extends AbstractSmellCharacteristic {
+public class Size extends LongSmellCharacteristic {
     /**
      * Sets up this instance.
      **/
@@ -22,8 +22,8 @@ public class Size extends AbstractSmellCharacteristic {
      * @param smell the CD smell to visit the characteristic on.
      */
     @Override
-    public String visit(CDSmell smell) {
-        return String.valueOf(smell.getAffectedElements().size());
+    protected Long valueOf(CDSmell smell) {
+        return (long) smell.getAffectedElements().size();
     }
 
     /**
@@ -32,8 +32,8 @@ public class Size extends AbstractSmellCharacteristic {
      * @param smell the HL smell to visit the characteristic on.
      */
     @Override
-    public String visit(HLSmell smell) {
-        return String.valueOf(smell.getOutDep().size() + smell.getInDep().size() + 1);
+    protected Long valueOf(HLSmell smell) {
+        return (long) smell.getOutDep().size() + smell.getInDep().size() + 1;
     }
 
     /**
@@ -42,8 +42,8 @@ public class Size extends AbstractSmellCharacteristic {
      * @param smell the UD smell to visit the characteristic on.
      */
     @Override
-    public String visit(UDSmell smell) {
-        return String.valueOf(smell.getBadDep().size() + 1);
+    protected Long valueOf(UDSmell smell) {
+        return (long) smell.getBadDep().size() + 1;
     }
 
     /**
@@ -52,5 +52,5 @@ public class Size extends AbstractSmellCharacteristic {
      * @return the number of elements within the affected element.
      */
     @Override
-    public String visit(GCSmell smell){ return String.valueOf(smell.getElementsInAffected().size()); }
+    protected Long valueOf(GCSmell smell){ return (long) smell.getElementsInAffected().size(); }
 }
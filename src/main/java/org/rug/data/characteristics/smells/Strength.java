@@ -7,7 +7,7 @@ import org.rug.data.smells.UDSmell;
  * This characteristic returns the DUD property of the UD smell. DUD=Degree of Unstable Dependency
  * And is the ratio BadDependencies/TotalNumOfDependencies.
  */
-public class Strength extends AbstractSmellCharacteristic {
+public class Strength extends DoubleSmellCharacteristic {
     /**
      * Sets up the name of this smell characteristic.
      */
@@ -16,9 +16,8 @@ public class Strength extends AbstractSmellCharacteristic {
     }
 
     @Override
-    public String visit(UDSmell smell) {
+    protected Double valueOf(UDSmell smell) {
         Vertex smellNode = smell.getSmellNodes().iterator().next();
-        double dud = Double.parseDouble(smellNode.value("DUD").toString()) / 100d;
-        return String.valueOf(dud);
+        return Double.parseDouble(smellNode.value("DUD").toString()) / 100d;
     }
 }
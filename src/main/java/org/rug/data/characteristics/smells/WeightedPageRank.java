@@ -0,0 +1,185 @@
+package org.rug.data.characteristics.smells;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.labels.VertexLabel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the PageRank of the types (i.e. classes, packages, files and components) of a dependency graph following
+ * the edges with a given label. The Weight property of an edge is treated as the number of parallel edges between its
+ * endpoints, hence the results are the same as those of TinkerPop's PageRankVertexProgram executed on a graph where
+ * every edge is replicated Weight times (including the way teleportation energy and dangling vertices are handled)
+ * when given the same maximum number of iterations. The graph is stored as compressed sparse rows of incoming edges and each
+ * iteration is computed in parallel.
+ * The computation can be warm-started from the ranks of a similar graph (e.g. the previous version of the system).
+ * Both cold and warm starts iterate until convergence, so they stop close to the same fixed point: at most
+ * EPSILON * ALPHA / (1 - ALPHA) away from it in L1 distance.
+ */
+public class WeightedPageRank {
+
+    public final static double ALPHA = 0.85d;
+    public final static double EPSILON = 0.00001d;
+    /**
+     * A safety cap on the iterations. It is far above the iterations needed by the dependency graphs of a
+     * system (at most 47 for the versions of ANTLR), so that the computation stops because it converged.
+     */
+    public final static int MAX_ITERATIONS = 500;
+
+    private final Vertex[] vertices;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final double[] inWeights;
+    private final double[] outWeights;
+    private int iterations;
+
+    /**
+     * Builds the compressed representation of the given graph.
+     * @param graph the dependency graph of a version. It is not modified.
+     * @param edgeLabel the label of the edges to navigate.
+     */
+    public WeightedPageRank(Graph graph, EdgeLabel edgeLabel) {
+        var typeVertices = new ArrayList<Vertex>();
+        graph.vertices().forEachRemaining(v -> { if (VertexLabel.getTypesStrings().contains(v.label())) typeVertices.add(v); });
+        this.vertices = typeVertices.toArray(new Vertex[0]);
+
+        var index = new HashMap<Object, Integer>(vertices.length * 2);
+        for (int i = 0; i < vertices.length; i++) {
+            index.put(vertices[i].id(), i);
+        }
+
+        var edges = new ArrayList<Edge>();
+        graph.edges().forEachRemaining(e -> {
+            // an edge with weight zero is equivalent to no edge at all
+            if (e.label().equals(edgeLabel.toString()) && e.<Integer>property("Weight").orElse(1) > 0
+                    && index.containsKey(e.outVertex().id()) && index.containsKey(e.inVertex().id()))
+                edges.add(e);
+        });
+
+        this.inOffsets = new int[vertices.length + 1];
+        this.inSources = new int[edges.size()];
+        this.inWeights = new double[edges.size()];
+        this.outWeights = new double[vertices.length];
+
+        var targets = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            targets[i] = index.get(edges.get(i).inVertex().id());
+            inOffsets[targets[i] + 1]++;
+        }
+        for (int i = 0; i < vertices.length; i++) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        var next = Arrays.copyOf(inOffsets, vertices.length);
+        for (int i = 0; i < edges.size(); i++) {
+            var edge = edges.get(i);
+            int source = index.get(edge.outVertex().id());
+            double weight = edge.<Integer>property("Weight").orElse(1);
+            int position = next[targets[i]]++;
+            inSources[position] = source;
+            inWeights[position] = weight;
+            outWeights[source] += weight;
+        }
+    }
+
+    /**
+     * Runs PageRank starting from a uniform distribution until the sum of the absolute changes of the ranks is
+     * below {@link #EPSILON} or {@link #MAX_ITERATIONS} iterations are executed.
+     * @return a map from each type vertex of the graph to its centrality.
+     */
+    public Map<Vertex, Double> compute() {
+        return compute(Map.of());
+    }
+
+    /**
+     * Runs PageRank starting from the given ranks until the sum of the absolute changes of the ranks is
+     * below {@link #EPSILON} or {@link #MAX_ITERATIONS} iterations are executed.
+     * @param initialRanks the initial rank of the vertices, mapped by the name of the vertex. Vertices that
+     *                     are not contained in this map start with rank 1/n, then the ranks are normalised to sum
+     *                     up to 1. If the map is empty, the computation is equivalent to {@link #compute()}.
+     * @return a map from each type vertex of the graph to its centrality.
+     */
+    public Map<Vertex, Double> compute(Map<String, Double> initialRanks) {
+        int n = vertices.length;
+        var ranks = new double[n];
+        var result = new HashMap<Vertex, Double>(n * 2);
+        iterations = 0;
+        if (n == 0) {
+            return result;
+        }
+
+        double error;
+        if (initialRanks.isEmpty()) {
+            // first iteration: all the teleportation energy is spread uniformly
+            Arrays.fill(ranks, 1d / n);
+            error = 1d;
+        } else {
+            double sum = 0d;
+            for (int v = 0; v < n; v++) {
+                ranks[v] = initialRanks.getOrDefault(vertices[v].<String>property("name").orElse(""), 1d / n);
+                sum += ranks[v];
+            }
+            for (int v = 0; v < n; v++) {
+                ranks[v] /= sum;
+            }
+            error = Double.MAX_VALUE;
+        }
+        iterations++;
+
+        double energy = teleportationEnergy(ranks);
+        var nextRanks = new double[n];
+        while (iterations < MAX_ITERATIONS && error >= EPSILON) {
+            var currentRanks = ranks;
+            var localEnergy = energy / n;
+            IntStream.range(0, n).parallel().forEach(v -> {
+                double rank = 0d;
+                for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                    int u = inSources[i];
+                    rank += ALPHA * currentRanks[u] * inWeights[i] / outWeights[u];
+                }
+                nextRanks[v] = rank + localEnergy;
+            });
+            error = 0d;
+            for (int v = 0; v < n; v++) {
+                error += Math.abs(nextRanks[v] - ranks[v]);
+            }
+            System.arraycopy(nextRanks, 0, ranks, 0, n);
+            energy = teleportationEnergy(ranks);
+            iterations++;
+        }
+
+        for (int v = 0; v < n; v++) {
+            result.put(vertices[v], ranks[v]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of iterations executed by the last computation, including the initialisation of the ranks.
+     * @return the number of iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * The energy that is teleported uniformly at the next iteration: the share of rank that is not propagated
+     * plus the rank of the vertices without outgoing edges.
+     */
+    private double teleportationEnergy(double[] ranks) {
+        double energy = 0d;
+        for (int v = 0; v < ranks.length; v++) {
+            energy += (1d - ALPHA) * ranks[v];
+            if (outWeights[v] <= 0d) {
+                energy += ALPHA * ranks[v];
+            }
+        }
+        return energy;
+    }
+}
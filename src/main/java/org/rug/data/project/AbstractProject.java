@@ -161,6 +161,7 @@ public abstract class AbstractProject implements IProject {
      * Returns the type of the project under analysis. Namely, the programming language used.
      * @return the programming language of the analysed project.
      */
+    @Override
     public Type getProjectType() {
         return projectType;
     }
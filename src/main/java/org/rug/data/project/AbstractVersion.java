@@ -1,6 +1,5 @@
 package org.rug.data.project;
 
-import org.apache.tinkerpop.gremlin.process.traversal.IO;
 import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
@@ -11,10 +10,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Map;
 
 public abstract class AbstractVersion implements IVersion {
 
     private final static Logger logger = LoggerFactory.getLogger(Version.class);
+
+    /**
+     * The vertices retrieved by Arcan from outside the system (e.g. library classes) are removed from the graph.
+     * They are identified by a property, the key of this map, whose value contains the string mapped.
+     */
+    final static Map<String, String> RETRIEVED_MARKERS = Map.of(
+            "Type", "retrieved", "PackageType", "Retrieved", "ClassType", "Retrieved");
     protected String versionDate;
 
     private String versionString;
@@ -91,7 +98,8 @@ public abstract class AbstractVersion implements IVersion {
     }
 
     /**
-     * Lazily loads the Graph from the given GraphML file at the first invocation.
+     * Lazily loads the Graph from the given GraphML file at the first invocation. The file is parsed in parallel
+     * by a {@link ParallelGraphMLReader}.
      * The Graph is then cached for future access.
      * @return the dependency graph of this version.
      */
@@ -102,8 +110,7 @@ public abstract class AbstractVersion implements IVersion {
             try {
                 var graphMLfile = graphMLPath.toFile();
                 if (graphMLfile.isFile() && graphMLfile.canRead()) {
-                    this.graph.traversal().io(graphMLPath.toAbsolutePath().toString())
-                            .read().with(IO.reader, IO.graphml).iterate();
+                    new ParallelGraphMLReader().readGraph(graphMLPath.toAbsolutePath(), graph);
                     ensureCompatibility();
                 }else {
                     throw new IOException("");
@@ -129,15 +136,9 @@ public abstract class AbstractVersion implements IVersion {
 
         switchEdgeLabel("isPartOfComponent", EdgeLabel.BELONGSTO.toString());
         switchEdgeLabel("afferent", EdgeLabel.PACKAGEISAFFERENTOF.toString());
-        this.graph.traversal().V()
-                .has("Type", TextP.containing("retrieved"))
-                .drop().iterate();
-        this.graph.traversal().V()
-                .has("PackageType", TextP.containing("Retrieved"))
-                .drop().iterate();
-        this.graph.traversal().V()
-                .has("ClassType", TextP.containing("Retrieved"))
-                .drop().iterate();
+        RETRIEVED_MARKERS.forEach((marker, value) -> this.graph.traversal().V()
+                .has(marker, TextP.containing(value))
+                .drop().iterate());
     }
 
     private void switchEdgeLabel(String oldLabel, String newLabel){
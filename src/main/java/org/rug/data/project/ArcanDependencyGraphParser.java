@@ -2,6 +2,7 @@ package org.rug.data.project;
 
 import org.apache.tinkerpop.gremlin.process.traversal.IO;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.rug.data.labels.VertexLabel;
 import org.rug.data.smells.ArchitecturalSmell;
@@ -30,37 +31,62 @@ public class ArcanDependencyGraphParser {
 
     private final static Map<Graph, List<ArchitecturalSmell>> cachedSmellLists = new HashMap<>();
 
+    private static Set<ArchitecturalSmell.Type> smellTypes = Collections.unmodifiableSet(EnumSet.allOf(ArchitecturalSmell.Type.class));
+    private static Set<ArchitecturalSmell.Level> smellLevels = Collections.unmodifiableSet(EnumSet.allOf(ArchitecturalSmell.Level.class));
+
     public static List<ArchitecturalSmell> getArchitecturalSmellsIn(Graph graph, Project.Type projectType){
         PROJECT_TYPE = projectType;
         return getArchitecturalSmellsIn(graph);
     }
 
+    /**
+     * Restricts the smells built by this parser to the given types and levels. Smells of other types are
+     * skipped before being instantiated, those affecting other levels are discarded right after instantiation, so that
+     * they are never scored, tracked or written. The cache of parsed smells is cleared.
+     * @param smellTypes the types of smell to parse.
+     * @param smellLevels the levels of the smells to parse.
+     */
+    public static void setSmellFilter(Set<ArchitecturalSmell.Type> smellTypes, Set<ArchitecturalSmell.Level> smellLevels){
+        ArcanDependencyGraphParser.smellTypes = Collections.unmodifiableSet(EnumSet.copyOf(smellTypes));
+        ArcanDependencyGraphParser.smellLevels = Collections.unmodifiableSet(EnumSet.copyOf(smellLevels));
+        cachedSmellLists.clear();
+    }
+
+    /**
+     * Restores the default filter, which parses the smells of all types and levels. The filter is shared by all the
+     * projects analysed in the same JVM, so it must be reset before analysing a project with a different one.
+     */
+    public static void resetSmellFilter(){
+        setSmellFilter(EnumSet.allOf(ArchitecturalSmell.Type.class), EnumSet.allOf(ArchitecturalSmell.Level.class));
+    }
+
+    /**
+     * Returns the types of smell currently parsed.
+     * @return an unmodifiable set of types.
+     */
+    public static Set<ArchitecturalSmell.Type> getSmellTypes() {
+        return smellTypes;
+    }
+
+    /**
+     * Returns the levels of the smells currently parsed.
+     * @return an unmodifiable set of levels.
+     */
+    public static Set<ArchitecturalSmell.Level> getSmellLevels() {
+        return smellLevels;
+    }
+
     /**
      * Given the graph of a system, this methods builds a list of Architectural Smells that affect this system.
      * The list is cached internally for future retrievals. A maximum of {@link #MAX_CACHED_GRAPH_COUNT} graphs are
-     * cached to save memory.
+     * cached to save memory. The graph is never modified by this method. Only the smells selected by the current
+     * filter are built (see {@link #setSmellFilter(Set, Set)}).
      * @param graph the graph of the system.
      * @return an unmodifiable list containing the parsed smells.
      */
     public static List<ArchitecturalSmell> getArchitecturalSmellsIn(Graph graph){
         if (!cachedSmellLists.containsKey(graph)){
-            List<ArchitecturalSmell> architecturalSmells = new ArrayList<>();
-            graph.traversal().V().hasLabel(VertexLabel.SMELL.toString()).toList()
-                    .forEach(smellVertex -> {
-                        String smellTypeProperty = smellVertex.value("smellType");
-                        if (smellTypeProperty != null) {
-                            ArchitecturalSmell.Type smellType = ArchitecturalSmell.Type.fromString(smellTypeProperty);
-                            if (!smellVertex.property(CDSmell.VISITED_SMELL_NODE).orElse("false").equals("true")) {
-                                ArchitecturalSmell as = smellType.getInstance(smellVertex, PROJECT_TYPE);
-                                if (as != null)
-                                    architecturalSmells.add(as);
-                                else
-                                    logger.warn("AS type '{}' with id '{}' was ignored.", smellVertex.value("smellType").toString(), smellVertex.id());
-                            }
-                        } else {
-                            logger.warn("No 'smellType' property found for smell vertex {}.", smellVertex);
-                        }
-                    });
+            List<ArchitecturalSmell> architecturalSmells = buildArchitecturalSmells(graph, smellTypes, smellLevels);
             if (cachedSmellLists.size() >= MAX_CACHED_GRAPH_COUNT)
                 cachedSmellLists.clear();
             cachedSmellLists.putIfAbsent(graph, Collections.unmodifiableList(architecturalSmells));
@@ -68,6 +94,70 @@ public class ArcanDependencyGraphParser {
         return cachedSmellLists.get(graph);
     }
 
+    /**
+     * Builds the Architectural Smells of the given types and levels that affect the given system. The result is not
+     * cached. The outgoing edges of every smell vertex are scanned once and grouped by label before the smell is
+     * instantiated, so construction is linear in the number of smell edges. The smells share a single
+     * table of characteristics.
+     * @param graph the graph of the system.
+     * @param smellTypes the types of smell to build.
+     * @param smellLevels the levels of the smells to build.
+     * @return a list containing the parsed smells.
+     */
+    public static List<ArchitecturalSmell> buildArchitecturalSmells(Graph graph, Set<ArchitecturalSmell.Type> smellTypes,
+                                                                    Set<ArchitecturalSmell.Level> smellLevels){
+        List<ArchitecturalSmell> architecturalSmells = new ArrayList<>();
+        getSmellVerticesToParse(graph).forEach(smellVertex -> {
+            ArchitecturalSmell.Type smellType = ArchitecturalSmell.Type.fromString(smellVertex.value("smellType"));
+            if (smellType != null && !smellTypes.contains(smellType))
+                return;
+            ArchitecturalSmell as = smellType == null ? null :
+                    smellType.getInstance(smellVertex, ArchitecturalSmell.groupOutNeighbours(smellVertex), PROJECT_TYPE);
+            if (as == null)
+                logger.warn("AS type '{}' with id '{}' was ignored.", smellVertex.value("smellType").toString(), smellVertex.id());
+            else if (smellLevels.contains(as.getLevel()))
+                architecturalSmells.add(as);
+        });
+        ArchitecturalSmell.shareCharacteristicsTable(architecturalSmells);
+        return architecturalSmells;
+    }
+
+    /**
+     * Selects, in a single pass over the smell vertices of the given graph, the vertices that each represent exactly
+     * one smell. CD smell vertices are grouped by their {@link VertexLabel#CYCLESHAPE} parents and, for shapes that
+     * are composed by multiple smell vertices (see {@link CDSmell.Shape#getMultipleSmellNodesShapes()}), only the first
+     * vertex met in the traversal is kept: the other smell vertices of its shapes are then considered as covered.
+     * Vertices without a 'smellType' property are discarded. The graph is not modified by this method.
+     * @param graph the graph of the system.
+     * @return the list of smell vertices to instantiate smells from, in traversal order.
+     */
+    public static List<Vertex> getSmellVerticesToParse(Graph graph){
+        var multipleNodesShapes = CDSmell.Shape.getMultipleSmellNodesShapes().stream()
+                .map(CDSmell.Shape::toString).collect(Collectors.toSet());
+        var coveredSmellVertices = new HashSet<Vertex>();
+        var smellVertices = new ArrayList<Vertex>();
+        graph.traversal().V().hasLabel(VertexLabel.SMELL.toString()).forEachRemaining(smellVertex -> {
+            String smellTypeProperty = smellVertex.<String>property("smellType").orElse(null);
+            if (smellTypeProperty == null) {
+                logger.warn("No 'smellType' property found for smell vertex {}.", smellVertex);
+                return;
+            }
+            if (ArchitecturalSmell.Type.CD.toString().equals(smellTypeProperty)) {
+                if (coveredSmellVertices.contains(smellVertex))
+                    return;
+                var shapeVertex = CDSmell.getShapeVertexOf(smellVertex);
+                if (shapeVertex != null && multipleNodesShapes.contains(shapeVertex.<String>value("shapeType"))) {
+                    graph.traversal().V(smellVertex)
+                            .in().hasLabel(VertexLabel.CYCLESHAPE.toString())
+                            .out().hasLabel(VertexLabel.SMELL.toString())
+                            .forEachRemaining(coveredSmellVertices::add);
+                }
+            }
+            smellVertices.add(smellVertex);
+        });
+        return smellVertices;
+    }
+
     /**
      * Maps every architectural smell in the given list to its id.
      * @param list the list of AS to use
@@ -39,7 +39,7 @@ public class GitProject extends AbstractProject {
     public void addSourceDirectory(String sourceMainDir) {
         var srcDirPath = new File(sourceMainDir).toPath();
         super.versionInitializer = (f) ->
-                new GitVersion(f, git.getRepository(), git.checkout(),
+                new GitVersion(f, git.getRepository(),
                         projectType.getSourceCodeRetrieverInstance(srcDirPath));
     }
 
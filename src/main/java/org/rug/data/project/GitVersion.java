@@ -1,9 +1,8 @@
 package org.rug.data.project;
 
-import org.eclipse.jgit.api.CheckoutCommand;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
+import org.rug.data.characteristics.comps.GitSourceTree;
 import org.rug.data.characteristics.comps.SourceCodeRetriever;
 
 import java.nio.file.Path;
@@ -11,30 +10,22 @@ import java.nio.file.Path;
 public class GitVersion extends AbstractVersion {
 
     private transient Repository repository;
-    private transient CheckoutCommand checkoutCommand;
     private String commitName;
-    private boolean isCheckedOut;
 
-    public GitVersion(Path path, Repository repository, CheckoutCommand checkoutCommand, SourceCodeRetriever sourceCodeRetriever){
+    /**
+     * Instantiates a version of a git project. The source code of the version is read directly from the
+     * tree of its commit, so the commit is never checked out.
+     * @param path the path to the GraphML file of the version.
+     * @param repository the repository of the project.
+     * @param sourceCodeRetriever the source code retriever, whose files are read from the commit of this version.
+     */
+    public GitVersion(Path path, Repository repository, SourceCodeRetriever sourceCodeRetriever){
         super(path, sourceCodeRetriever);
-        this.checkoutCommand = checkoutCommand;
         this.repository = repository;
-        this.isCheckedOut = false;
-    }
-
-
-    @Override
-    public synchronized SourceCodeRetriever getSourceCodeRetriever() {
-        if (!isCheckedOut) {
-                checkoutCommand.setName(commitName);
-                try {
-                    checkoutCommand.call();
-                    isCheckedOut = true;
-                } catch (GitAPIException e) {
-                    throw new IllegalArgumentException("Could not checkout the given commit: " + getVersionString());
-                }
+        if (repository != null && sourceCodeRetriever != null) {
+            sourceCodeRetriever.setSourceTree(new GitSourceTree(repository, getCommitObjectId(),
+                    sourceCodeRetriever.getSourcePath()));
         }
-        return super.getSourceCodeRetriever();
     }
 
     /**
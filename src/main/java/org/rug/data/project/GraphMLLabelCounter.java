@@ -0,0 +1,105 @@
+package org.rug.data.project;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the vertices of a GraphML file by label with a single streaming scan of the file, without building
+ * the graph. The counts are the same of the graph returned by {@link AbstractVersion#getGraph()}: the vertices
+ * retrieved from outside the system are not counted, a vertex declared more than once keeps the label of its first
+ * declaration, and vertices without a label have the default one. Vertices created only because an edge refers
+ * to them are not counted, as they have the default label.
+ */
+public class GraphMLLabelCounter {
+
+    private final static String VERTEX_LABEL_KEY = "labelV";
+
+    private GraphMLLabelCounter() {}
+
+    /**
+     * Counts the vertices of the given file by label.
+     * @param graphMLFile the file to read.
+     * @return a map from the labels to the number of vertices having them.
+     * @throws IOException if the file cannot be read or it is not a valid GraphML file.
+     */
+    public static Map<String, Long> countVertexLabels(Path graphMLFile) throws IOException {
+        var markerKeys = new HashMap<String, String>();
+        var nodes = new HashMap<String, NodeState>();
+        try (var in = new BufferedInputStream(Files.newInputStream(graphMLFile), 1 << 16)) {
+            var factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                NodeState current = null;
+                boolean firstDeclaration = false;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "key":
+                                var name = reader.getAttributeValue(null, "attr.name");
+                                if (AbstractVersion.RETRIEVED_MARKERS.containsKey(name)) {
+                                    markerKeys.put(reader.getAttributeValue(null, "id"), name);
+                                }
+                                break;
+                            case "node":
+                                var id = reader.getAttributeValue(null, "id");
+                                current = nodes.get(id);
+                                firstDeclaration = current == null;
+                                if (firstDeclaration) {
+                                    current = new NodeState();
+                                    nodes.put(id, current);
+                                }
+                                break;
+                            case "data":
+                                if (current == null) {
+                                    break;
+                                }
+                                var key = reader.getAttributeValue(null, "key");
+                                if (firstDeclaration && VERTEX_LABEL_KEY.equals(key)) {
+                                    current.label = reader.getElementText();
+                                } else if (markerKeys.containsKey(key)) {
+                                    var marker = markerKeys.get(key);
+                                    current.markers.put(marker, reader.getElementText()
+                                            .contains(AbstractVersion.RETRIEVED_MARKERS.get(marker)));
+                                }
+                                break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("node")) {
+                        current = null;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not parse %s", graphMLFile), e);
+        }
+
+        var counts = new HashMap<String, Long>();
+        for (var node : nodes.values()) {
+            if (!node.markers.containsValue(true)) {
+                counts.merge(node.label == null ? Vertex.DEFAULT_LABEL : node.label, 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * The label of a vertex and whether the last value of each of its retrieval markers marks it as retrieved.
+     */
+    private static class NodeState {
+        private String label;
+        private final Map<String, Boolean> markers = new HashMap<>(4);
+    }
+}
@@ -19,6 +19,12 @@ public interface IProject extends Iterable<IVersion> {
      */
     String getName();
 
+    /**
+     * Returns the type of the project under analysis. Namely, the programming language used.
+     * @return the programming language of the analysed project.
+     */
+    AbstractProject.Type getProjectType();
+
     /**
      * Retrieves the architectural smells detected in the given version.
      * @param version The version where to retrieve smells from.
@@ -0,0 +1,528 @@
+package org.rug.data.project;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a GraphML file into a graph by splitting the node and edge sections of the file in partitions that are
+ * parsed in parallel. The resulting graph is the same one produced by TinkerPop's GraphML reader: same ids, labels,
+ * typed properties and the same insertion order of vertices and edges, which determines the order of traversals.
+ * <p>
+ * The file is memory-mapped and never decoded as a whole. The keys are read from the header with a StAX parser.
+ * The partitions are delimited by the byte offsets of node and edge elements, found by a single scan of the markup
+ * that skips comments, CDATA sections, processing instructions and quoted attribute values. Every partition is then
+ * parsed by its own StAX parser, reading directly from the mapped file, and the property values are converted
+ * in the same thread.
+ * <p>
+ * Only parsing is parallel: vertices and edges are deliberately added to the graph sequentially, in document order,
+ * because graphs such as TinkerGraph do not support concurrent writes and the insertion order must be preserved.
+ * Edges are resolved against the concurrent id map of the vertices in parallel before being added.
+ * <p>
+ * Only the GraphML subset written by Arcan is supported: the file uses an ASCII-compatible encoding (e.g. UTF-8),
+ * keys are declared before the graph element and the vertices are declared before the edges that use them.
+ */
+public class ParallelGraphMLReader {
+
+    private final static String VERTEX_LABEL_KEY = "labelV";
+    private final static String EDGE_LABEL_KEY = "labelE";
+
+    private final static byte[] PARTITION_START = "<partition>".getBytes(StandardCharsets.US_ASCII);
+    private final static byte[] PARTITION_END = "</partition>".getBytes(StandardCharsets.US_ASCII);
+
+    private final int partitions;
+
+    /**
+     * Builds a reader that uses as many partitions as the available processors.
+     */
+    public ParallelGraphMLReader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Builds a reader that splits the file in the given number of partitions.
+     * @param partitions the number of partitions to parse in parallel, at least 1.
+     */
+    public ParallelGraphMLReader(int partitions) {
+        this.partitions = Math.max(1, partitions);
+    }
+
+    /**
+     * Reads the given GraphML file into the given graph.
+     * @param graphMLFile the file to read.
+     * @param graph the graph to write to. It is expected to support user supplied ids.
+     * @throws IOException if the file cannot be read or it is not a valid GraphML file.
+     */
+    public void readGraph(Path graphMLFile, Graph graph) throws IOException {
+        var header = readHeader(graphMLFile);
+        List<List<ElementRecord>> parsedPartitions;
+        try (var channel = FileChannel.open(graphMLFile, StandardOpenOption.READ)) {
+            var file = new MappedFile(channel);
+            var boundaries = getPartitionBoundaries(file, graphMLFile);
+            parsedPartitions = IntStream.range(0, boundaries.length - 1).parallel()
+                    .mapToObj(i -> parsePartition(file.stream(boundaries[i], boundaries[i + 1]), header))
+                    .collect(Collectors.toList());
+        } catch (UncheckedXMLStreamException e) {
+            throw new IOException(String.format("Could not parse %s", graphMLFile), e.getCause());
+        }
+
+        Map<String, Vertex> vertices = new ConcurrentHashMap<>();
+        parsedPartitions.forEach(records -> records.stream()
+                .filter(r -> r.isVertex)
+                .forEachOrdered(r -> addVertex(graph, vertices, r)));
+
+        var edges = parsedPartitions.parallelStream()
+                .map(records -> records.stream()
+                        .filter(r -> !r.isVertex)
+                        .map(r -> new ResolvedEdge(r, vertices.get(r.source), vertices.get(r.target)))
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        edges.forEach(partition -> partition.forEach(e -> addEdge(graph, vertices, e)));
+    }
+
+    /**
+     * Reads the keys declared in the header of the file, stopping at the graph element.
+     * @param graphMLFile the file to read.
+     * @return the keys and the encoding of the file.
+     * @throws IOException if the file cannot be read or the header is not valid XML.
+     */
+    private Header readHeader(Path graphMLFile) throws IOException {
+        var keys = new HashMap<String, Key>();
+        try (var in = new BufferedInputStream(Files.newInputStream(graphMLFile))) {
+            XMLStreamReader reader = newInputFactory().createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT)
+                        continue;
+                    if (reader.getLocalName().equals("graph"))
+                        break;
+                    if (reader.getLocalName().equals("key")) {
+                        var id = reader.getAttributeValue(null, "id");
+                        if (id != null)
+                            keys.put(id, new Key(reader.getAttributeValue(null, "attr.name"),
+                                    reader.getAttributeValue(null, "attr.type")));
+                    }
+                }
+                var encoding = reader.getCharacterEncodingScheme() != null ? reader.getCharacterEncodingScheme()
+                        : reader.getEncoding() != null ? reader.getEncoding() : StandardCharsets.UTF_8.name();
+                return new Header(keys, encoding);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(String.format("Could not parse the header of %s", graphMLFile), e);
+        }
+    }
+
+    /**
+     * Scans the markup of the file to find the body of the graph element and splits it in ranges that start at
+     * the beginning of a node or edge element child of the graph element.
+     * @param file the mapped file.
+     * @param graphMLFile the path of the file.
+     * @return an array of increasing byte offsets, the first being the start of the body of the graph element
+     * and the last the start of its closing tag.
+     * @throws IOException if the file contains no graph element or it is not closed.
+     */
+    private long[] getPartitionBoundaries(MappedFile file, Path graphMLFile) throws IOException {
+        long size = file.size();
+        long partitionLength = Math.max(1, size / partitions);
+        long nextBoundary = partitionLength;
+        var boundaries = new ArrayList<Long>();
+        long bodyStart = -1;
+        long bodyEnd = -1;
+        int depth = 0;
+        int graphDepth = -1;
+        long i = 0;
+        while (i < size && bodyEnd < 0) {
+            if (file.get(i) != '<') {
+                i++;
+            } else if (file.startsWith(i, "<!--")) {
+                i = file.skipPast(i + 4, "-->");
+            } else if (file.startsWith(i, "<![CDATA[")) {
+                i = file.skipPast(i + 9, "]]>");
+            } else if (file.startsWith(i, "<?")) {
+                i = file.skipPast(i + 2, "?>");
+            } else if (file.startsWith(i, "<!")) {
+                i = file.skipDeclaration(i + 2);
+            } else if (file.startsWith(i, "</")) {
+                depth--;
+                if (depth == graphDepth)
+                    bodyEnd = i;
+                i = file.skipTag(i + 2) + 1;
+            } else {
+                long tagEnd = file.skipTag(i + 1);
+                boolean selfClosing = file.get(tagEnd - 1) == '/';
+                if (graphDepth < 0 && file.isElement(i + 1, "graph")) {
+                    bodyStart = tagEnd + 1;
+                    if (selfClosing)
+                        bodyEnd = bodyStart;
+                    graphDepth = depth;
+                } else if (depth == graphDepth + 1 && i >= nextBoundary
+                        && (file.isElement(i + 1, "node") || file.isElement(i + 1, "edge"))) {
+                    boundaries.add(i);
+                    while (nextBoundary <= i)
+                        nextBoundary += partitionLength;
+                }
+                if (!selfClosing)
+                    depth++;
+                i = tagEnd + 1;
+            }
+        }
+        if (bodyStart < 0)
+            throw new IOException(String.format("No graph element found in %s", graphMLFile));
+        if (bodyEnd < 0)
+            throw new IOException(String.format("Malformed graph element in %s", graphMLFile));
+
+        var offsets = new long[boundaries.size() + 2];
+        offsets[0] = bodyStart;
+        for (int j = 0; j < boundaries.size(); j++)
+            offsets[j + 1] = boundaries.get(j);
+        offsets[offsets.length - 1] = bodyEnd;
+        return offsets;
+    }
+
+    /**
+     * Parses the node and edge elements contained in the given partition.
+     * @param partition the bytes of a sequence of complete node and edge elements.
+     * @param header the header of the file.
+     * @return the records of the elements in document order.
+     */
+    private List<ElementRecord> parsePartition(InputStream partition, Header header){
+        var records = new ArrayList<ElementRecord>();
+        var keys = header.keys;
+        try {
+            var in = new SequenceInputStream(Collections.enumeration(List.of(
+                    new ByteArrayInputStream(PARTITION_START), partition, new ByteArrayInputStream(PARTITION_END))));
+            XMLStreamReader reader = newInputFactory().createXMLStreamReader(in, header.encoding);
+            ElementRecord current = null;
+            while (reader.hasNext()){
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT){
+                    switch (reader.getLocalName()){
+                        case "node":
+                            current = new ElementRecord(true, reader.getAttributeValue(null, "id"));
+                            break;
+                        case "edge":
+                            current = new ElementRecord(false, reader.getAttributeValue(null, "id"));
+                            current.source = reader.getAttributeValue(null, "source");
+                            current.target = reader.getAttributeValue(null, "target");
+                            break;
+                        case "data":
+                            var keyId = reader.getAttributeValue(null, "key");
+                            var key = keys.get(keyId);
+                            if (current != null && key != null && key.name != null){
+                                var value = reader.getElementText();
+                                if (keyId.equals(current.isVertex ? VERTEX_LABEL_KEY : EDGE_LABEL_KEY)) {
+                                    current.label = value;
+                                } else {
+                                    try {
+                                        current.properties.put(key.name, key.cast(value));
+                                    } catch (NumberFormatException e){
+                                        // not strict, as TinkerPop's reader, the property is ignored
+                                    }
+                                }
+                            }
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT){
+                    var name = reader.getLocalName();
+                    if (current != null && (name.equals("node") || name.equals("edge"))){
+                        records.add(current);
+                        current = null;
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new UncheckedXMLStreamException(e);
+        }
+        return records;
+    }
+
+    private static XMLInputFactory newInputFactory(){
+        var factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+
+    private void addVertex(Graph graph, Map<String, Vertex> vertices, ElementRecord record){
+        var keyValues = record.getKeyValues(record.label == null ? Vertex.DEFAULT_LABEL : record.label);
+        var existing = vertices.get(record.id);
+        if (existing != null) {
+            ElementHelper.attachProperties(existing, keyValues);
+        } else {
+            vertices.put(record.id, graph.addVertex(ElementHelper.upsert(keyValues, T.id, record.id)));
+        }
+    }
+
+    private void addEdge(Graph graph, Map<String, Vertex> vertices, ResolvedEdge edge){
+        var outVertex = edge.outVertex != null ? edge.outVertex : findOrCreate(graph, vertices, edge.record.source);
+        var inVertex = edge.inVertex != null ? edge.inVertex : findOrCreate(graph, vertices, edge.record.target);
+        var keyValues = edge.record.getKeyValues(null);
+        if (edge.record.id != null)
+            keyValues = ElementHelper.upsert(keyValues, T.id, edge.record.id);
+        outVertex.addEdge(edge.record.label == null ? Edge.DEFAULT_LABEL : edge.record.label, inVertex, keyValues);
+    }
+
+    private Vertex findOrCreate(Graph graph, Map<String, Vertex> vertices, String id){
+        return vertices.computeIfAbsent(id, k -> graph.addVertex(T.id, k));
+    }
+
+    /**
+     * A key declared in the GraphML header.
+     */
+    private static class Key {
+        private final String name;
+        private final String type;
+
+        private Key(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        /**
+         * Casts the value to the type of this key, as done by TinkerPop's GraphML reader.
+         * @param value the value to cast.
+         * @return the typed value.
+         */
+        private Object cast(String value){
+            if (type == null)
+                return value;
+            switch (type){
+                case "float": return Float.valueOf(value);
+                case "int": return Integer.valueOf(value);
+                case "double": return Double.valueOf(value);
+                case "boolean": return Boolean.valueOf(value);
+                case "long": return Long.valueOf(value);
+                default: return value;
+            }
+        }
+    }
+
+    /**
+     * A node or edge element as parsed from the file.
+     */
+    private static class ElementRecord {
+        private final boolean isVertex;
+        private final String id;
+        private String label;
+        private String source;
+        private String target;
+        private final Map<String, Object> properties = new HashMap<>();
+
+        private ElementRecord(boolean isVertex, String id) {
+            this.isVertex = isVertex;
+            this.id = id;
+        }
+
+        private Object[] getKeyValues(String label){
+            var keyValues = new ArrayList<>(properties.size() * 2 + 2);
+            if (label != null) {
+                keyValues.add(T.label);
+                keyValues.add(label);
+            }
+            properties.forEach((k, v) -> { keyValues.add(k); keyValues.add(v); });
+            return keyValues.toArray();
+        }
+    }
+
+    /**
+     * An edge record with its endpoints resolved against the vertices read, null if not found.
+     */
+    private static class ResolvedEdge {
+        private final ElementRecord record;
+        private final Vertex outVertex;
+        private final Vertex inVertex;
+
+        private ResolvedEdge(ElementRecord record, Vertex outVertex, Vertex inVertex) {
+            this.record = record;
+            this.outVertex = outVertex;
+            this.inVertex = inVertex;
+        }
+    }
+
+    /**
+     * The keys declared in the header of a file and its encoding.
+     */
+    private static class Header {
+        private final Map<String, Key> keys;
+        private final String encoding;
+
+        private Header(Map<String, Key> keys, String encoding) {
+            this.keys = keys;
+            this.encoding = encoding;
+        }
+    }
+
+    /**
+     * A file mapped in memory in segments of at most 1 GB, so that files larger than 2 GB can be mapped.
+     * The segments are only read with absolute methods or through duplicates, so the file can be read concurrently.
+     */
+    private static class MappedFile {
+        private final static int SEGMENT_BITS = 30;
+        private final static long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+        private final MappedByteBuffer[] segments;
+        private final long size;
+
+        private MappedFile(FileChannel channel) throws IOException {
+            this.size = channel.size();
+            this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, size - position));
+            }
+        }
+
+        private long size() {
+            return size;
+        }
+
+        private byte get(long index) {
+            return segments[(int) (index >>> SEGMENT_BITS)].get((int) (index & SEGMENT_MASK));
+        }
+
+        private boolean startsWith(long index, String prefix) {
+            if (index + prefix.length() > size)
+                return false;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (get(index + i) != prefix.charAt(i))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * @return whether the element whose name starts at the given index has the given name.
+         */
+        private boolean isElement(long index, String name) {
+            if (!startsWith(index, name))
+                return false;
+            long end = index + name.length();
+            if (end >= size)
+                return false;
+            byte next = get(end);
+            return next == '>' || next == '/' || Character.isWhitespace(next);
+        }
+
+        /**
+         * @return the index following the first occurrence of the given terminator from the given index,
+         * or the size of the file if the terminator is not found.
+         */
+        private long skipPast(long index, String terminator) {
+            while (index < size && !startsWith(index, terminator))
+                index++;
+            return Math.min(size, index + terminator.length());
+        }
+
+        /**
+         * @return the index of the '>' closing the tag whose name starts at the given index, skipping quoted
+         * attribute values, or the last index of the file if the tag is not closed.
+         */
+        private long skipTag(long index) {
+            byte quote = 0;
+            for (; index < size; index++) {
+                byte c = get(index);
+                if (quote != 0) {
+                    if (c == quote)
+                        quote = 0;
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return index;
+                }
+            }
+            return size - 1;
+        }
+
+        /**
+         * @return the index following a declaration (e.g. a DOCTYPE), skipping its internal subset and quoted values.
+         */
+        private long skipDeclaration(long index) {
+            byte quote = 0;
+            int brackets = 0;
+            for (; index < size; index++) {
+                byte c = get(index);
+                if (quote != 0) {
+                    if (c == quote)
+                        quote = 0;
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[') {
+                    brackets++;
+                } else if (c == ']') {
+                    brackets--;
+                } else if (c == '>' && brackets <= 0) {
+                    return index + 1;
+                }
+            }
+            return size;
+        }
+
+        /**
+         * @return a stream of the bytes between the given offsets.
+         */
+        private InputStream stream(long from, long to) {
+            return new InputStream() {
+                private long position = from;
+                private ByteBuffer segment;
+                private int segmentIndex = -1;
+
+                @Override
+                public int read() {
+                    return position < to ? get(position++) & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (len == 0)
+                        return 0;
+                    if (position >= to)
+                        return -1;
+                    int index = (int) (position >>> SEGMENT_BITS);
+                    if (index != segmentIndex) {
+                        segment = segments[index].duplicate();
+                        segmentIndex = index;
+                    }
+                    int offset = (int) (position & SEGMENT_MASK);
+                    int count = (int) Math.min(Math.min(len, to - position), segment.capacity() - offset);
+                    segment.position(offset);
+                    segment.get(b, off, count);
+                    position += count;
+                    return count;
+                }
+            };
+        }
+    }
+
+    private static class UncheckedXMLStreamException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private UncheckedXMLStreamException(XMLStreamException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.rug.data.project;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.smells.ArchitecturalSmell;
+import org.rug.data.smells.CDSmell;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Computes name-based hashes of the structure of a version and of its smells. Vertex and edge ids are not taken into
+ * account, hence two versions that contain the same components, dependencies and smells (with the same properties)
+ * get the same fingerprint even if Arcan assigned them different ids. The order in which elements are iterated does
+ * not change the fingerprint either.
+ */
+public class StructuralFingerprint {
+
+    private final long high;
+    private final long low;
+
+    private StructuralFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Computes the fingerprint of the given graph from its vertices, edges and their properties.
+     * Must be invoked before any characteristic is saved into the graph.
+     * @param graph the graph of a version.
+     * @return the fingerprint of the graph.
+     */
+    public static StructuralFingerprint of(Graph graph){
+        var accumulator = new Accumulator();
+        graph.vertices().forEachRemaining(v -> accumulator.add("V" + vertexKey(v) + properties(v)));
+        graph.edges().forEachRemaining(e -> accumulator.add("E" + e.label() + vertexKey(e.outVertex()) + vertexKey(e.inVertex()) + properties(e)));
+        return accumulator.toFingerprint();
+    }
+
+    /**
+     * Computes a key that identifies the given smell by name within the structure of its version. Two smells with
+     * the same key in two versions with the same fingerprint have the same structural characteristics.
+     * @param smell the smell.
+     * @return a string key.
+     */
+    public static String keyOf(ArchitecturalSmell smell){
+        var accumulator = new Accumulator();
+        accumulator.add(smell.getType() + "|" + smell.getLevel() +
+                (smell instanceof CDSmell ? "|" + ((CDSmell) smell).getShape() : ""));
+        accumulator.add("A" + new TreeSet<>(smell.getAffectedElementsNames()));
+        smell.getSmellNodes().forEach(smellNode -> {
+            var builder = new StringBuilder("S").append(properties(smellNode));
+            var edges = new TreeSet<String>();
+            smellNode.edges(Direction.BOTH).forEachRemaining(e -> edges.add(
+                    (e.outVertex().equals(smellNode) ? ">" + vertexKey(e.inVertex()) : "<" + vertexKey(e.outVertex()))
+                            + e.label() + properties(e)));
+            accumulator.add(builder.append(edges).toString());
+        });
+        return accumulator.toFingerprint().toString();
+    }
+
+    /**
+     * Parses a fingerprint from its string representation.
+     * @param fingerprint a string returned by {@link #toString()}.
+     * @return the fingerprint.
+     * @throws NumberFormatException if the string is not a valid fingerprint.
+     */
+    public static StructuralFingerprint valueOf(String fingerprint){
+        if (fingerprint.length() != 32) {
+            throw new NumberFormatException("Invalid fingerprint: " + fingerprint);
+        }
+        return new StructuralFingerprint(Long.parseUnsignedLong(fingerprint.substring(0, 16), 16),
+                Long.parseUnsignedLong(fingerprint.substring(16), 16));
+    }
+
+    /**
+     * Identifies a vertex by its label and name, or by its label and properties if the vertex has no name
+     * (e.g. smell and shape vertices).
+     */
+    private static String vertexKey(Vertex vertex){
+        return vertex.label() + ":" + vertex.property("name").orElseGet(() -> properties(vertex));
+    }
+
+    private static String properties(Element element){
+        var properties = new TreeMap<String, String>();
+        element.properties().forEachRemaining(p -> properties.put(p.key(), String.valueOf(p.value())));
+        return properties.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StructuralFingerprint)) return false;
+        StructuralFingerprint that = (StructuralFingerprint) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(high, low);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * Combines the 128-bit digests of a multiset of strings with an order-independent sum.
+     */
+    private static class Accumulator {
+        private final MessageDigest digest;
+        private long high;
+        private long low;
+
+        private Accumulator() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void add(String element){
+            var bytes = digest.digest(element.getBytes(StandardCharsets.UTF_8));
+            long h = 0, l = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (bytes[i] & 0xff);
+                l = (l << 8) | (bytes[i + 8] & 0xff);
+            }
+            high += h;
+            low += l;
+        }
+
+        private StructuralFingerprint toFingerprint(){
+            return new StructuralFingerprint(high, low);
+        }
+    }
+}
@@ -1,22 +1,29 @@
 package org.rug.data.smells;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.SmellVisitor;
 import org.rug.data.characteristics.*;
 import org.rug.data.characteristics.smells.AffectedDesign;
+import org.rug.data.labels.EdgeLabel;
 import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.AbstractProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Set;
-import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -39,8 +46,10 @@ public abstract class ArchitecturalSmell {
     protected Set<Vertex> affectedElements;
     protected Set<String> affectedElementsNames;
     protected Graph affectedGraph;
+    protected Map<String, Set<Vertex>> outNeighbours;
 
-    protected Map<String, String> characteristicsMap;
+    private CharacteristicsTable characteristicsTable;
+    private int characteristicsRow;
 
     private Type type;
     private Level level;
@@ -50,15 +59,59 @@ public abstract class ArchitecturalSmell {
      * @param smell the smell that characterizes this instance.
      */
     protected ArchitecturalSmell(Vertex smell, Type type){
+        this(smell, type, groupOutNeighbours(smell));
+    }
+
+    /**
+     * Initializes this smell instance starting from the smell node and its adjacent vertices grouped by edge label.
+     * @param smell the smell that characterizes this instance.
+     * @param outNeighbours the vertices adjacent to the outgoing edges of the smell node, grouped by edge label
+     *                      (see {@link #groupOutNeighbours(Vertex)}).
+     */
+    protected ArchitecturalSmell(Vertex smell, Type type, Map<String, Set<Vertex>> outNeighbours){
         assert smell.label().equals(VertexLabel.SMELL.toString());
         this.id = Long.parseLong(smell.id().toString());
         this.type = type;
-        this.characteristicsMap = new HashMap<>();
+        this.characteristicsTable = new CharacteristicsTable(1);
+        this.characteristicsRow = 0;
         this.affectedGraph = smell.graph();
         this.affectedVersion = null;
+        this.outNeighbours = outNeighbours;
         setLevel(smell);
-        setAffectedElements(smell);
         setSmellNodes(smell);
+        setAffectedElements(smell);
+    }
+
+    /**
+     * Groups the vertices adjacent to the outgoing edges of the given smell vertex by the label of the edge.
+     * The edges are scanned only once and the order in which they are met is preserved within every group.
+     * @param smell the smell vertex.
+     * @return a map where keys are edge labels and values are the vertices reached through edges with that label.
+     */
+    public static Map<String, Set<Vertex>> groupOutNeighbours(Vertex smell){
+        Map<String, Set<Vertex>> neighbours = new HashMap<>();
+        smell.edges(Direction.OUT).forEachRemaining(edge ->
+                neighbours.computeIfAbsent(edge.label(), label -> new LinkedHashSet<>()).add(edge.inVertex()));
+        return neighbours;
+    }
+
+    /**
+     * Returns the vertices adjacent to the smell node through outgoing edges with the given label.
+     * @param label the label of the edges.
+     * @return an unmodifiable set of vertices, empty if no edge has the given label.
+     */
+    protected Set<Vertex> getOutNeighbours(EdgeLabel label){
+        return Collections.unmodifiableSet(outNeighbours.getOrDefault(label.toString(), Collections.emptySet()));
+    }
+
+    /**
+     * Returns the first vertex adjacent to the smell node through an outgoing edge with the given label.
+     * @param label the label of the edge.
+     * @return the vertex.
+     * @throws java.util.NoSuchElementException if no edge has the given label.
+     */
+    protected Vertex getOutNeighbour(EdgeLabel label){
+        return getOutNeighbours(label).iterator().next();
     }
 
     /**
@@ -126,16 +179,97 @@ public abstract class ArchitecturalSmell {
      */
     protected abstract void setSmellNodes(Vertex smell);
 
+    /**
+     * Makes the given smells store their characteristics in a single table, one row per smell, so that the
+     * values of the characteristics of a version are kept in columns of primitive values.
+     * Must be invoked before the characteristics of the smells are calculated.
+     * @param smells the smells of a version.
+     */
+    public static void shareCharacteristicsTable(List<ArchitecturalSmell> smells){
+        var table = new CharacteristicsTable(smells.size());
+        for (int i = 0; i < smells.size(); i++) {
+            smells.get(i).characteristicsTable = table;
+            smells.get(i).characteristicsRow = i;
+        }
+    }
+
     /**
      * Triggers the calculation of each characteristic using the correct implementation of SmellCharacteristicsSet for the
-     * current smell type. The results of the calculation are saved internally in a map
+     * current smell type. The results of the calculation are saved internally in a table
      * retrievable using <code>getCharacteristicsMap()</code>.
      */
     public void calculateCharacteristics(){
+        calculateCharacteristics(null);
+    }
+
+    /**
+     * Calculates the characteristics of this smell, copying the values of the structural characteristics
+     * from the given smell instead of computing them again.
+     * @param structurallyEqual a smell with the same structure of this one, whose characteristics were already
+     *                          calculated. If null, all the characteristics are computed.
+     * @see ISmellCharacteristic#isStructural()
+     */
+    public void calculateCharacteristics(ArchitecturalSmell structurallyEqual){
+        calculateCharacteristics(structurallyEqual, CharacteristicsSelection.all());
+    }
+
+    /**
+     * Calculates the selected characteristics of this smell, copying the values of the structural characteristics
+     * from the given smell instead of computing them again. The characteristics that are not selected are not computed.
+     * @param structurallyEqual a smell with the same structure of this one, whose characteristics were already
+     *                          calculated. If null, all the selected characteristics are computed.
+     * @param selection the characteristics to compute.
+     */
+    public void calculateCharacteristics(ArchitecturalSmell structurallyEqual, CharacteristicsSelection selection){
         Set<ISmellCharacteristic> characteristicsSets = this.type.getCharacteristicsSet();
         for (ISmellCharacteristic characteristic : characteristicsSets){
-            String value = this.accept(characteristic);
-            characteristicsMap.put(characteristic.getName(), value);
+            if (!selection.isSelected(characteristic)) {
+                continue;
+            }
+            boolean copied = structurallyEqual != null && characteristic.isStructural() &&
+                    characteristicsTable.copy(characteristic.getName(), characteristicsRow,
+                            structurallyEqual.characteristicsTable, structurallyEqual.characteristicsRow);
+            if (!copied) {
+                characteristic.calculate(this, characteristicsTable, characteristicsRow);
+            }
+        }
+    }
+
+    /**
+     * Writes the values of the characteristics of this smell in a compact binary form.
+     * @param out the output to write to.
+     * @throws IOException if the values cannot be written.
+     */
+    public void writeCharacteristics(DataOutput out) throws IOException {
+        for (ISmellCharacteristic characteristic : this.type.getCharacteristicsSet()){
+            characteristicsTable.writeCell(characteristic.getName(), characteristicsRow, out);
+        }
+    }
+
+    /**
+     * Reads the values of the characteristics of this smell written by {@link #writeCharacteristics(DataOutput)}
+     * into the given row of the given table. The values of this smell are not modified.
+     * @param in the input to read from.
+     * @param table the table to save the values into.
+     * @param row the row of the table to save the values into.
+     * @throws IOException if the values cannot be read.
+     * @see #restoreCharacteristics(CharacteristicsTable, int)
+     */
+    public void readCharacteristics(DataInput in, CharacteristicsTable table, int row) throws IOException {
+        for (ISmellCharacteristic characteristic : this.type.getCharacteristicsSet()){
+            characteristic.restore(in, table, row);
+        }
+    }
+
+    /**
+     * Restores the values of the characteristics of this smell read by
+     * {@link #readCharacteristics(DataInput, CharacteristicsTable, int)}, in place of calculating them.
+     * @param table the table containing the values read.
+     * @param row the row of the table containing the values of this smell.
+     */
+    public void restoreCharacteristics(CharacteristicsTable table, int row) {
+        for (ISmellCharacteristic characteristic : this.type.getCharacteristicsSet()){
+            characteristicsTable.copy(characteristic.getName(), characteristicsRow, table, row);
         }
     }
 
@@ -147,12 +281,22 @@ public abstract class ArchitecturalSmell {
     public abstract <T> T accept(SmellVisitor<T> visitor);
 
     /**
-     * Get the map of the currently computed characteristics.
-     * @return an unmodifiable map containing the results of the characteristics.
+     * Get the map of the currently computed characteristics, converted into strings.
+     * @return a map containing the results of the characteristics.
      * The keys of the map are the name of the characteristics whereas the values is the computed value for that key.
      */
     public Map<String, String> getCharacteristicsMap() {
-        return characteristicsMap;
+        return characteristicsTable.toStringMap(characteristicsRow);
+    }
+
+    /**
+     * Returns the value of a numeric characteristic without converting it into a string.
+     * @param name the name of the characteristic.
+     * @return the value, or an empty optional if the characteristic was not computed, is not defined for this
+     * smell, or is not numeric.
+     */
+    public OptionalDouble getNumericCharacteristic(String name) {
+        return characteristicsTable.getNumber(name, characteristicsRow);
     }
 
     /**
@@ -278,29 +422,39 @@ public abstract class ArchitecturalSmell {
      * Represents a type of AS and maps them to their instantiation and characteristics set.
      */
     public enum Type {
-        CD("cyclicDep", (v, t) -> t == AbstractProject.Type.JAVA ? new CDSmell(v) : new CDSmellCPP(v), new CDCharacteristicsSet()),
-        UD("unstableDep", (v, t) -> t == AbstractProject.Type.JAVA ? new UDSmell(v) : new UDSmellCPP(v), new UDCharacteristicsSet()),
-        HL("hubLikeDep", (v, t) -> t == AbstractProject.Type.JAVA ? new HLSmell(v) : new HLSmellCPP(v), new HLCharacteristicsSet()),
-        GC("godComponent", (v, t) -> t == AbstractProject.Type.JAVA ? new GCSmell(v) : null, new GCCharacteristicsSet()),
-        ICPD("ixpDep", (v, t) -> null, null),
-        MAS("multipleAS", (v, t) -> null, null),
+        CD("cyclicDep", (v, n, t) -> t == AbstractProject.Type.JAVA ? new CDSmell(v, n) : new CDSmellCPP(v, n), new CDCharacteristicsSet()),
+        UD("unstableDep", (v, n, t) -> t == AbstractProject.Type.JAVA ? new UDSmell(v, n) : new UDSmellCPP(v, n), new UDCharacteristicsSet()),
+        HL("hubLikeDep", (v, n, t) -> t == AbstractProject.Type.JAVA ? new HLSmell(v, n) : new HLSmellCPP(v, n), new HLCharacteristicsSet()),
+        GC("godComponent", (v, n, t) -> t == AbstractProject.Type.JAVA ? new GCSmell(v, n) : null, new GCCharacteristicsSet()),
+        ICPD("ixpDep", (v, n, t) -> null, null),
+        MAS("multipleAS", (v, n, t) -> null, null),
         ;
 
         private String value;
-        private BiFunction<Vertex, AbstractProject.Type, ArchitecturalSmell> smellInstantiator;
+        private SmellInstantiator smellInstantiator;
         private SmellCharacteristicsSet characteristicsSet;
 
-        Type(String value, BiFunction<Vertex, AbstractProject.Type, ArchitecturalSmell> smellInstantiator,
-             SmellCharacteristicsSet characteristicsSet){
+        Type(String value, SmellInstantiator smellInstantiator, SmellCharacteristicsSet characteristicsSet){
             this.value = value;
             this.smellInstantiator = smellInstantiator;
             this.characteristicsSet = characteristicsSet;
         }
 
         public ArchitecturalSmell getInstance(Vertex vertex, AbstractProject.Type projectType){
+            return getInstance(vertex, groupOutNeighbours(vertex), projectType);
+        }
+
+        /**
+         * Instantiates a smell of this type from the given smell vertex and its adjacent vertices grouped by edge label.
+         * @param vertex the smell vertex.
+         * @param outNeighbours the output of {@link #groupOutNeighbours(Vertex)} for the given vertex.
+         * @param projectType the type of the project the smell belongs to.
+         * @return the smell instance, or null if the smell could not be instantiated.
+         */
+        public ArchitecturalSmell getInstance(Vertex vertex, Map<String, Set<Vertex>> outNeighbours, AbstractProject.Type projectType){
             ArchitecturalSmell smell;
             try {
-                smell = this.smellInstantiator.apply(vertex, projectType);
+                smell = this.smellInstantiator.apply(vertex, outNeighbours, projectType);
             }catch (Exception e){
                 smell = null;
             }
@@ -309,10 +463,11 @@ public abstract class ArchitecturalSmell {
 
         /**
          * Returns the SmellCharacteristicsSet instance of the current type.
-         * @return the correct instance of SmellCharacteristicsSet that can be used to compute a smell's characteristics.
+         * @return the correct instance of SmellCharacteristicsSet that can be used to compute a smell's characteristics,
+         * or an empty set if no characteristic is defined for this type.
          */
         public Set<ISmellCharacteristic> getCharacteristicsSet() {
-            return characteristicsSet.getCharacteristicSet();
+            return characteristicsSet == null ? Set.of() : characteristicsSet.getCharacteristicSet();
         }
 
         @Override
@@ -339,6 +494,13 @@ public abstract class ArchitecturalSmell {
             }
         }
 
+        /**
+         * Builds a smell instance from a smell vertex, its adjacent vertices grouped by edge label and the project type.
+         */
+        @FunctionalInterface
+        private interface SmellInstantiator {
+            ArchitecturalSmell apply(Vertex vertex, Map<String, Set<Vertex>> outNeighbours, AbstractProject.Type projectType);
+        }
     }
 
     /**
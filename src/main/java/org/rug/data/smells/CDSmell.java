@@ -1,22 +1,24 @@
 package org.rug.data.smells;
 
-import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.rug.data.SmellVisitor;
 import org.rug.data.labels.VertexLabel;
 
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Represents a Cyclic Dependency smell.
  */
 public class CDSmell extends ArchitecturalSmell {
 
-    public static final String VISITED_SMELL_NODE = "visitedSmellNode";
     protected Shape shape;
     protected Vertex shapeVertex;
 
@@ -26,13 +28,25 @@ public class CDSmell extends ArchitecturalSmell {
      * @param smell the vertex to use.
      */
     public CDSmell(Vertex smell){
-        super(smell, Type.CD);
-        setShape(smell);
+        this(smell, groupOutNeighbours(smell));
+    }
+
+    /**
+     * Builds an architectural smell instance of a CD smell starting from the given vertex and its adjacent vertices.
+     * @param smell the vertex to use.
+     * @param outNeighbours the vertices adjacent to the smell vertex, grouped by edge label.
+     */
+    public CDSmell(Vertex smell, Map<String, Set<Vertex>> outNeighbours){
+        this(smell, Type.CD, outNeighbours);
     }
     
 
     public CDSmell(Vertex smell, Type type) {
-    	super(smell, type);
+    	this(smell, type, groupOutNeighbours(smell));
+    }
+
+    public CDSmell(Vertex smell, Type type, Map<String, Set<Vertex>> outNeighbours) {
+    	super(smell, type, outNeighbours);
     	setShape(smell);
     }
 
@@ -54,33 +68,62 @@ public class CDSmell extends ArchitecturalSmell {
 
     /**
      * Tries to retrieve the shape type by walking to the shape node starting from the given smell node.
+     * The graph is not modified by this method: deciding which smell node represents a shape composed by multiple
+     * smell nodes is up to the parser (see {@link org.rug.data.project.ArcanDependencyGraphParser}).
      * @param smell The smell node to run walking from
      */
     private void setShape(Vertex smell){
         //TODO a smell node can be part of two cycles, need to find a way to distinguish between the two
-        this.shapeVertex = smell.graph().traversal().V(smell)
-                .in().hasLabel(VertexLabel.CYCLESHAPE.toString())
-                .not(__.has(VISITED_SMELL_NODE, "true"))
-                .tryNext().orElse(null);
+        this.shapeVertex = getShapeVertexOf(smell);
         if (this.shapeVertex == null){
             this.shape = Shape.UNCLASSIFIED;
         }else {
             this.shape = Shape.fromString(shapeVertex.value("shapeType"));
         }
-        if (Shape.getMultipleSmellNodesShapes().contains(this.shape)){
-            this.smellNodes.forEach(vertex -> vertex.property(VISITED_SMELL_NODE, "true"));
-            smell.property(VISITED_SMELL_NODE, "false");
+    }
+
+    /**
+     * Retrieves the shape vertex the given smell vertex belongs to.
+     * @param smell the smell vertex.
+     * @return the first {@link VertexLabel#CYCLESHAPE} vertex pointing to the given smell, or null if the smell
+     * is not part of any shape.
+     */
+    public static Vertex getShapeVertexOf(Vertex smell){
+        var shapes = smell.vertices(Direction.IN);
+        while (shapes.hasNext()){
+            var vertex = shapes.next();
+            if (vertex.label().equals(VertexLabel.CYCLESHAPE.toString()))
+                return vertex;
         }
+        return null;
     }
 
 
     @Override
     protected void setAffectedElements(Vertex smell) {
-        setAffectedElements(smell.graph().traversal().V(smell)
-                .choose(__.in().hasLabel(VertexLabel.CYCLESHAPE.toString()),
-                        __.in().hasLabel(VertexLabel.CYCLESHAPE.toString())
-                               .out().hasLabel(VertexLabel.SMELL.toString()))
-                .out().hasLabel(P.within(VertexLabel.CLASS.toString(), VertexLabel.PACKAGE.toString())).toSet());
+        setAffectedElements(getElementsInCycle(smell, VertexLabel.CLASS, VertexLabel.PACKAGE));
+    }
+
+    /**
+     * Collects the elements with the given labels that are adjacent to the smell nodes of this smell.
+     * The adjacent vertices of the given smell vertex are read from the pre-grouped neighbours, the other smell
+     * nodes (if any) are walked directly. Requires the smell nodes to be already set.
+     * @param smell the smell vertex this instance is built from.
+     * @param labels the labels of the elements to collect.
+     * @return the set of elements taking part in the cycle.
+     */
+    protected Set<Vertex> getElementsInCycle(Vertex smell, VertexLabel... labels){
+        var labelStrings = Arrays.stream(labels).map(VertexLabel::toString).collect(Collectors.toSet());
+        var elements = new HashSet<Vertex>();
+        outNeighbours.values().forEach(neighbours -> neighbours.stream()
+                .filter(v -> labelStrings.contains(v.label()))
+                .forEach(elements::add));
+        smellNodes.stream().filter(v -> !v.equals(smell)).forEach(smellNode ->
+                smellNode.vertices(Direction.OUT).forEachRemaining(v -> {
+                    if (labelStrings.contains(v.label()))
+                        elements.add(v);
+                }));
+        return elements;
     }
 
     @Override
@@ -5,6 +5,7 @@ import org.rug.data.SmellVisitor;
 import org.rug.data.labels.EdgeLabel;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class GCSmell extends SingleElementSmell {
@@ -14,8 +15,18 @@ public class GCSmell extends SingleElementSmell {
      * @param smell the smell that characterizes this instance.
      */
     public GCSmell(Vertex smell) {
-        super(smell, Type.GC);
-        this.setCentre(smell.graph().traversal().V(smell).out(EdgeLabel.GCAFFECTEDPACKAGE.toString()).next());
+        this(smell, groupOutNeighbours(smell));
+    }
+
+    /**
+     * Initializes this smell instance starting from the smell node and its adjacent vertices.
+     *
+     * @param smell the smell that characterizes this instance.
+     * @param outNeighbours the vertices adjacent to the smell node, grouped by edge label.
+     */
+    public GCSmell(Vertex smell, Map<String, Set<Vertex>> outNeighbours) {
+        super(smell, Type.GC, outNeighbours);
+        this.setCentre(getOutNeighbour(EdgeLabel.GCAFFECTEDPACKAGE));
     }
 
     @Override
@@ -26,8 +37,7 @@ public class GCSmell extends SingleElementSmell {
     @Override
     protected void setAffectedElements(Vertex smell) {
         affectedElements = new HashSet<>();
-        var centre = smell.graph().traversal().V(smell).out(EdgeLabel.GCAFFECTEDPACKAGE.toString()).next();
-        affectedElements.add(centre);
+        affectedElements.add(getOutNeighbour(EdgeLabel.GCAFFECTEDPACKAGE));
     }
 
     @Override
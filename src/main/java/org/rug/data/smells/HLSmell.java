@@ -7,6 +7,7 @@ import org.rug.data.labels.EdgeLabel;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -25,13 +26,33 @@ public class HLSmell extends SingleElementSmell {
     public HLSmell(Vertex smell) {
         this(smell, Type.HL);
     }
+
+    /**
+     * Builds an architectural smell instance of a HD smell starting from the given vertex and its adjacent vertices.
+     * @param smell the vertex to use.
+     * @param outNeighbours the vertices adjacent to the smell vertex, grouped by edge label.
+     */
+    public HLSmell(Vertex smell, Map<String, Set<Vertex>> outNeighbours) {
+        this(smell, Type.HL, outNeighbours);
+    }
     
     public HLSmell(Vertex smell, Type type) {
-        super(smell, type);
-        this.inDep = smell.graph().traversal().V(smell).out(EdgeLabel.HLIN.toString()).toSet();
-        this.outDep = smell.graph().traversal().V(smell).out(EdgeLabel.HLOUT.toString()).toSet();
-        EdgeLabel label = getLevel().isDesignLevel() ? EdgeLabel.HLAFFECTEDCLASS : EdgeLabel.HLAFFECTEDPACK;
-        this.setCentre(smell.graph().traversal().V(smell).out(label.toString()).next());
+        this(smell, type, groupOutNeighbours(smell));
+    }
+
+    public HLSmell(Vertex smell, Type type, Map<String, Set<Vertex>> outNeighbours) {
+        super(smell, type, outNeighbours);
+        this.inDep = getOutNeighbours(EdgeLabel.HLIN);
+        this.outDep = getOutNeighbours(EdgeLabel.HLOUT);
+        this.setCentre(getOutNeighbour(getAffectedLabel()));
+    }
+
+    /**
+     * Returns the label of the edge pointing to the element affected by this smell.
+     * @return the edge label depending on the level of the smell.
+     */
+    private EdgeLabel getAffectedLabel(){
+        return getLevel().isDesignLevel() ? EdgeLabel.HLAFFECTEDCLASS : EdgeLabel.HLAFFECTEDPACK;
     }
 
     /**
@@ -41,12 +62,11 @@ public class HLSmell extends SingleElementSmell {
      */
     @Override
     public void setAffectedElements(Vertex smell) {
-        EdgeLabel label = getLevel().isDesignLevel() ? EdgeLabel.HLAFFECTEDCLASS : EdgeLabel.HLAFFECTEDPACK;
         this.affectedElements = new HashSet<>();
-        this.affectedElements.add(smell.graph().traversal().V(smell).out(label.toString()).next());
+        this.affectedElements.add(getOutNeighbour(getAffectedLabel()));
         // Ingoing and outgoing dependencies are also considered affected elements
-        this.affectedElements.addAll(smell.graph().traversal().V(smell).out(EdgeLabel.HLIN.toString()).toSet());
-        this.affectedElements.addAll(smell.graph().traversal().V(smell).out(EdgeLabel.HLOUT.toString()).toSet());
+        this.affectedElements.addAll(getOutNeighbours(EdgeLabel.HLIN));
+        this.affectedElements.addAll(getOutNeighbours(EdgeLabel.HLOUT));
     }
 
     /**
@@ -2,10 +2,17 @@ package org.rug.data.smells;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.Map;
+import java.util.Set;
+
 public class HLSmellCPP extends HLSmell {
 
 	public HLSmellCPP(Vertex smell) {
 		super(smell, Type.HL);
 	}
 
+	public HLSmellCPP(Vertex smell, Map<String, Set<Vertex>> outNeighbours) {
+		super(smell, Type.HL, outNeighbours);
+	}
+
 }
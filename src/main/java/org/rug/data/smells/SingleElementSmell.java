@@ -3,6 +3,8 @@ package org.rug.data.smells;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Models smells that are composed by a single central element.
@@ -20,6 +22,16 @@ public abstract class SingleElementSmell extends ArchitecturalSmell {
         super(smell, type);
     }
 
+    /**
+     * Initializes this smell instance starting from the smell node and its adjacent vertices grouped by edge label.
+     *
+     * @param smell the smell that characterizes this instance.
+     * @param outNeighbours the vertices adjacent to the smell node, grouped by edge label.
+     */
+    public SingleElementSmell(Vertex smell, Type type, Map<String, Set<Vertex>> outNeighbours) {
+        super(smell, type, outNeighbours);
+    }
+
     /**
      * Get the vertex affected by this smell.
      * @return the vertex affected by this smell.
@@ -6,6 +6,7 @@ import org.rug.data.labels.EdgeLabel;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -21,21 +22,34 @@ public class UDSmell extends SingleElementSmell {
      * @param smell the vertex to use.
      */
     public UDSmell(Vertex smell) {
-        super(smell, Type.UD);
-        this.badDep = smell.graph().traversal().V(smell).out(EdgeLabel.UDBADDEP.toString()).toSet();
-        this.setCentre(smell.graph().traversal().V(smell).out(EdgeLabel.UDAFFECTED.toString()).next());
+        this(smell, groupOutNeighbours(smell));
+    }
+
+    /**
+     * Builds an architectural smell instance of a UD smell starting from the given vertex and its adjacent vertices.
+     * @param smell the vertex to use.
+     * @param outNeighbours the vertices adjacent to the smell vertex, grouped by edge label.
+     */
+    public UDSmell(Vertex smell, Map<String, Set<Vertex>> outNeighbours) {
+        super(smell, Type.UD, outNeighbours);
+        this.badDep = getOutNeighbours(EdgeLabel.UDBADDEP);
+        this.setCentre(getOutNeighbour(EdgeLabel.UDAFFECTED));
     }
     
     public UDSmell(Vertex smell, Type type) {
-        super(smell, type);
-        this.badDep = smell.graph().traversal().V(smell).out(EdgeLabel.UDBADDEP.toString()).toSet();
+        this(smell, type, groupOutNeighbours(smell));
+    }
+
+    public UDSmell(Vertex smell, Type type, Map<String, Set<Vertex>> outNeighbours) {
+        super(smell, type, outNeighbours);
+        this.badDep = getOutNeighbours(EdgeLabel.UDBADDEP);
     }
 
     @Override
     public void setAffectedElements(Vertex smell) {
         this.affectedElements = new HashSet<>();
-        this.affectedElements.add(smell.graph().traversal().V(smell).out(EdgeLabel.UDAFFECTED.toString()).next());
-        this.affectedElements.addAll(smell.graph().traversal().V(smell).out(EdgeLabel.UDBADDEP.toString()).toSet());
+        this.affectedElements.add(getOutNeighbour(EdgeLabel.UDAFFECTED));
+        this.affectedElements.addAll(getOutNeighbours(EdgeLabel.UDBADDEP));
     }
 
     /**
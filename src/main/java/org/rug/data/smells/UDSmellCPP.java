@@ -2,12 +2,19 @@ package org.rug.data.smells;
 
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.Map;
+import java.util.Set;
+
 public class UDSmellCPP extends UDSmell {
 
 	public UDSmellCPP(Vertex smell) {
 		super(smell, Type.UD);
 	}
 
+	public UDSmellCPP(Vertex smell, Map<String, Set<Vertex>> outNeighbours) {
+		super(smell, Type.UD, outNeighbours);
+	}
+
 	/**
 	 * UD is only defined at component Level, so we set it like that by default.
 	 * @param smell the smell this instance is instantiated from.
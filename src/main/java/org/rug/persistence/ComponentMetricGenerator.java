@@ -2,6 +2,7 @@ package org.rug.persistence;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.rug.data.characteristics.ComponentCharacteristicSet;
+import org.rug.data.characteristics.ICharacteristic;
 import org.rug.data.characteristics.IComponentCharacteristic;
 import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.IVersion;
@@ -49,4 +50,14 @@ public class ComponentMetricGenerator extends CSVDataGenerator<IVersion> {
             records.add(record);
         }
     }
+
+    /**
+     * Every component characteristic is written.
+     * @param characteristic the characteristic.
+     * @return true if the characteristic is a component characteristic.
+     */
+    @Override
+    public boolean requires(ICharacteristic characteristic) {
+        return characteristic instanceof IComponentCharacteristic;
+    }
 }
@@ -2,6 +2,8 @@ package org.rug.persistence;
 
 import org.apache.tinkerpop.gremlin.process.traversal.IO;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.rug.data.characteristics.ICharacteristic;
+import org.rug.data.characteristics.IComponentCharacteristic;
 
 import java.io.File;
 
@@ -32,4 +34,15 @@ public abstract class GraphDataGenerator<T> implements IGraphGenerator<T> {
 
     @Override
     public void close() {}
+
+    /**
+     * The graphs contain the values of the component characteristics and of the smell characteristics
+     * that do not require to analyse the whole dependency graph.
+     * @param characteristic the characteristic.
+     * @return true if the characteristic is not a graph analysis.
+     */
+    @Override
+    public boolean requires(ICharacteristic characteristic) {
+        return characteristic instanceof IComponentCharacteristic || !characteristic.isGraphAnalysis();
+    }
 }
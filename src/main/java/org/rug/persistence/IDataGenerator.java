@@ -1,5 +1,7 @@
 package org.rug.persistence;
 
+import org.rug.data.characteristics.ICharacteristic;
+
 import java.io.File;
 
 public interface IDataGenerator<T> {
@@ -25,4 +27,14 @@ public interface IDataGenerator<T> {
      * Closes the underlying data streams for writing on files.
      */
     void close();
+
+    /**
+     * Whether the data written by this generator contains the values of the given characteristic.
+     * Characteristics that are not required by any registered generator, nor selected by the user, are not computed.
+     * @param characteristic the characteristic.
+     * @return false by default.
+     */
+    default boolean requires(ICharacteristic characteristic){
+        return false;
+    }
 }
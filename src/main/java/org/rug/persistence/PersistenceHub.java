@@ -2,6 +2,7 @@ package org.rug.persistence;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.rug.data.characteristics.ICharacteristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +64,16 @@ public class PersistenceHub {
         }
     }
 
+    /**
+     * Whether any of the registered generators requires the values of the given characteristic.
+     * @param characteristic the characteristic.
+     * @return true if the characteristic is required by at least one generator.
+     * @see IDataGenerator#requires(ICharacteristic)
+     */
+    public static boolean isRequired(ICharacteristic characteristic){
+        return generatorInstances.values().stream().anyMatch(g -> g.requires(characteristic));
+    }
+
     public static void clearAll(){
         generatorInstances.clear();
     }
@@ -6,6 +6,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSo
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.characteristics.ICharacteristic;
+import org.rug.data.characteristics.ISmellCharacteristic;
 import org.rug.data.project.IProject;
 import org.rug.data.project.IVersion;
 import org.rug.tracker.ASmellTracker;
@@ -116,6 +118,16 @@ public class SmellCharacteristicsGenerator extends CSVDataGenerator<ASmellTracke
             }
     }
 
+    /**
+     * Every smell characteristic is written.
+     * @param characteristic the characteristic.
+     * @return true if the characteristic is a smell characteristic.
+     */
+    @Override
+    public boolean requires(ICharacteristic characteristic) {
+        return characteristic instanceof ISmellCharacteristic;
+    }
+
     @Override
     public synchronized void writeOnFile() {
 
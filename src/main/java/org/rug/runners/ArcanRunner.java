@@ -1,46 +1,126 @@
 package org.rug.runners;
 
 import org.rug.data.project.Version;
+import org.rug.statefulness.ArcanManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
 
 public class ArcanRunner extends ToolRunner {
 
+    private final static Logger logger = LoggerFactory.getLogger(ArcanRunner.class);
+
+    /**
+     * The maximum heap size, in megabytes, of the Arcan processes if not specified otherwise.
+     */
+    public static final long DEFAULT_MAX_HEAP_MB = 16 * 1024;
+
     private final Version version;
+    private final String outputDir;
+    private Path scratchDir;
+    private ArcanManifest manifest;
+    private String input;
+    private String inputHash;
 
     /**
      * Initializes an arcan runner with the following smells CD, HL, and UD.
      */
     public ArcanRunner(String command, Version version, String outputDir, boolean isFolderOfFoldersOfJars, boolean useNeo4j){
-        super("arcan", "java -Xmx16G -jar " + command);
-        var args = Arrays.asList("-p", version.getSourceCodePath().toAbsolutePath().toString(),
+        this(command, version, outputDir, isFolderOfFoldersOfJars, useNeo4j, DEFAULT_MAX_HEAP_MB);
+    }
+
+    /**
+     * Initializes an arcan runner with the following smells CD, HL, and UD. Arcan is executed within a scratch
+     * directory created in the output directory for every execution, so that runners of different versions
+     * can be executed concurrently.
+     * @param maxHeapMB the maximum heap size of the Arcan process, in megabytes.
+     */
+    public ArcanRunner(String command, Version version, String outputDir, boolean isFolderOfFoldersOfJars, boolean useNeo4j, long maxHeapMB){
+        super("arcan", "java -Xmx" + maxHeapMB + "M -jar " + command);
+        var args = new ArrayList<>(Arrays.asList("-p", version.getSourceCodePath().toAbsolutePath().toString(),
                 isFolderOfFoldersOfJars ? "-folderOfJars" : "-jar",
                 "-CD", "-HL", "-UD", "-CM", "-PM",
-                "-out", outputDir + File.separator + "csv");
+                "-out", outputDir + File.separator + "csv"));
 
         if (useNeo4j)
             args.addAll(Arrays.asList("-neo4j", "-d", outputDir + File.separator + "neo4j-db"));
         setArgs(args.toArray(new String[0]));
         this.version = version;
+        this.outputDir = outputDir;
     }
 
     @Override
-    protected void preProcess() {
+    public int run() {
+        try {
+            return super.run();
+        } finally {
+            deleteScratchDir();
+        }
+    }
 
+    @Override
+    protected void preProcess() throws IOException {
+        scratchDir = Files.createTempDirectory(Paths.get(outputDir), "arcan-");
+        getBuilder().directory(scratchDir.toFile());
     }
 
     @Override
     protected void postProcess(Process p) throws IOException {
         try {
-            Files.move(Paths.get(getHomeDir(), "ToySystem-graph.graphml"),
+            Files.move(scratchDir.resolve("ToySystem-graph.graphml"),
                     version.getGraphMLPath(), StandardCopyOption.REPLACE_EXISTING);
         }catch (IOException e){
             throw new IOException("Could not move the graph file: " + e.getMessage());
         }
+        if (manifest != null) {
+            manifest.record(input, inputHash, List.of(version.getGraphMLPath()));
+        }
+    }
+
+    /**
+     * Records the graph file produced by this runner in the given manifest once Arcan completes successfully.
+     * @param manifest the manifest of the Arcan output directory.
+     * @param input the name of the input analysed.
+     * @param inputHash the hash of the input analysed.
+     */
+    public void setManifest(ArcanManifest manifest, String input, String inputHash) {
+        this.manifest = manifest;
+        this.input = input;
+        this.inputHash = inputHash;
+    }
+
+    /**
+     * @return the version analysed by this runner.
+     */
+    public Version getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s on version %s", getToolName(), version.getVersionString());
+    }
+
+    private void deleteScratchDir() {
+        if (scratchDir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(scratchDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Could not delete the scratch directory {}: {}", scratchDir, e.getMessage());
+        }
+        scratchDir = null;
     }
 }
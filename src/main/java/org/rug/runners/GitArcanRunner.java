@@ -1,15 +1,31 @@
 package org.rug.runners;
 
+import org.eclipse.jgit.api.Git;
 import org.rug.args.Args;
 import org.rug.data.project.GitProject;
 import org.rug.data.project.IProject;
+import org.rug.statefulness.ArcanManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class GitArcanRunner extends ToolRunner {
 
+    private final static Logger logger = LoggerFactory.getLogger(GitArcanRunner.class);
+
+    private final static String BRANCH = "master";
+
     IProject project;
     Args args;
+    private ArcanManifest manifest;
+    private String inputHash;
+
     /**
      * Initializes a tool with the given name and the given command.
      *
@@ -26,7 +42,7 @@ public class GitArcanRunner extends ToolRunner {
         var arcanArgs = String.format("-git -p %s -out %s -branch %s -startDate %s -nWeeks %d",
                 args.getGitRepo().getAbsolutePath(),
                 args.getArcanOutDir(),
-                "master",
+                BRANCH,
                 "1-1-1",
                 2);
         var arcanCommand = "java -jar " + args.getArcanJarFile();
@@ -36,6 +52,37 @@ public class GitArcanRunner extends ToolRunner {
         return arcan;
     }
 
+    /**
+     * Runs Arcan on the history of the repository, unless the {@link ArcanManifest} of the output directory records
+     * that the same history was already analysed by the same Arcan JAR, and the graph files produced are intact.
+     * @return the exit code of Arcan, or zero if the history was already analysed.
+     */
+    @Override
+    public int run() {
+        if (args.useCache()) {
+            manifest = new ArcanManifest(Paths.get(args.getArcanOutDir()));
+            try (var git = Git.open(args.getGitRepo())) {
+                var head = git.getRepository().resolve("refs/heads/" + BRANCH);
+                inputHash = head == null ? null : ArcanManifest.hashOf(
+                        ArcanManifest.hashOf(Paths.get(args.getArcanJarFile())), head.getName());
+            } catch (IOException e) {
+                logger.warn("Could not hash the history of {}: {}", args.getGitRepo(), e.getMessage());
+                inputHash = null;
+            }
+            if (inputHash != null && manifest.isUpToDate(getInput(), inputHash)) {
+                logger.info("Skipping Arcan on {}, already analysed.", args.getGitRepo());
+                try {
+                    postProcess(null);
+                    return 0;
+                } catch (IOException e) {
+                    logger.error("Could not load the graph files: {}", e.getMessage());
+                    return -1;
+                }
+            }
+        }
+        return super.run();
+    }
+
     @Override
     protected void preProcess() {
 
@@ -43,7 +90,21 @@ public class GitArcanRunner extends ToolRunner {
 
     @Override
     protected void postProcess(Process p) throws IOException {
+        if (p != null && manifest != null && inputHash != null) {
+            manifest.record(getInput(), inputHash, getGraphMLFiles());
+        }
         args.adjustProjDirToArcanOutput();
         project.addGraphMLfiles(args.getHomeProjectDirectory());
     }
+
+    private String getInput() {
+        return args.getGitRepo().getAbsoluteFile().getName() + ":" + BRANCH;
+    }
+
+    private List<Path> getGraphMLFiles() throws IOException {
+        try (var files = Files.list(Paths.get(args.getArcanOutDir()))) {
+            return files.filter(f -> Files.isRegularFile(f) && f.getFileName().toString().endsWith(".graphml"))
+                    .sorted().collect(Collectors.toList());
+        }
+    }
 }
@@ -2,7 +2,9 @@ package org.rug.runners;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.rug.data.labels.VertexLabel;
+import org.rug.data.project.GraphMLLabelCounter;
 import org.rug.data.project.IProject;
+import org.rug.data.project.IVersion;
 import org.rug.persistence.PersistenceHub;
 import org.rug.persistence.ProjectSizeGenerator;
 import org.slf4j.Logger;
@@ -10,6 +12,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,28 +43,61 @@ public class ProjecSizeRunner extends ToolRunner {
             logger.error("Cannot measure size of a project with no versions.");
             exitCode = -1;
         }else {
-            project.forEach(version -> {
-                logger.info("Measuring size of {} in version {}", project.getName(), version.getVersionString());
-                var graph = version.getGraph();
-                var nPlabels = VertexLabel.allComponents().stream().map(VertexLabel::toString).collect(Collectors.toSet());
-                var nClabels = VertexLabel.allFiles().stream().map(VertexLabel::toString).collect(Collectors.toSet());
-                var nP = graph.traversal().V().hasLabel(P.within(nPlabels)).count().tryNext().orElse(0L);
-                var nC = graph.traversal().V().hasLabel(P.within(nClabels)).count().tryNext().orElse(0L);
+            var versions = new ArrayList<>(project.versions());
+            var nPlabels = VertexLabel.allComponents().stream().map(VertexLabel::toString).collect(Collectors.toSet());
+            var nClabels = VertexLabel.allFiles().stream().map(VertexLabel::toString).collect(Collectors.toSet());
+            List<long[]> sizes = versions.parallelStream()
+                    .map(version -> measure(version, nPlabels, nClabels))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < versions.size(); i++) {
+                var version = versions.get(i);
                 var record = new ArrayList<String>();
                 record.add(project.getName());
                 record.add(version.getVersionString());
                 record.add(version.getVersionDate());
                 record.add(String.valueOf(version.getVersionIndex()));
-                record.add(String.valueOf(nP));
-                record.add(String.valueOf(nC));
-                PersistenceHub.sendToAndWrite(ProjectSizeGenerator.class, record);
-            });
+                record.add(String.valueOf(sizes.get(i)[0]));
+                record.add(String.valueOf(sizes.get(i)[1]));
+                if (i < versions.size() - 1) {
+                    PersistenceHub.sendTo(ProjectSizeGenerator.class, record);
+                } else {
+                    PersistenceHub.sendToAndWrite(ProjectSizeGenerator.class, record);
+                }
+            }
             logger.info("Completed.");
             exitCode = 0;
         }
         return exitCode;
     }
 
+    /**
+     * Counts the component and file vertices of the given version. The counts are read with a streaming scan of
+     * the GraphML file of the version, without building its graph, unless the version has no GraphML file.
+     * @param version the version to measure.
+     * @param nPlabels the labels of the component vertices.
+     * @param nClabels the labels of the file vertices.
+     * @return the number of component vertices and the number of file vertices.
+     */
+    private long[] measure(IVersion version, Set<String> nPlabels, Set<String> nClabels) {
+        logger.info("Measuring size of {} in version {}", project.getName(), version.getVersionString());
+        if (version.getGraphMLPath() != null) {
+            try {
+                var counts = GraphMLLabelCounter.countVertexLabels(version.getGraphMLPath());
+                return new long[]{sum(counts, nPlabels), sum(counts, nClabels)};
+            } catch (IOException e) {
+                logger.warn("Could not scan {}, reading its graph: {}", version.getGraphMLPath(), e.getMessage());
+            }
+        }
+        var graph = version.getGraph();
+        var nP = graph.traversal().V().hasLabel(P.within(nPlabels)).count().tryNext().orElse(0L);
+        var nC = graph.traversal().V().hasLabel(P.within(nClabels)).count().tryNext().orElse(0L);
+        return new long[]{nP, nC};
+    }
+
+    private static long sum(Map<String, Long> counts, Set<String> labels) {
+        return labels.stream().mapToLong(label -> counts.getOrDefault(label, 0L)).sum();
+    }
+
     @Override
     protected void postProcess(Process p) throws IOException {
 
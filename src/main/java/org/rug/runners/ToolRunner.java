@@ -5,9 +5,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Models an external tool which command is defined in the 'tools.properties' file and arguments
@@ -17,11 +19,17 @@ public abstract class ToolRunner{
 
     private final static Logger logger = LoggerFactory.getLogger(ToolRunner.class);
 
+    /**
+     * How long to wait for a process that exceeded its timeout to terminate after being killed.
+     */
+    private final static Duration DESTROY_TIMEOUT = Duration.ofSeconds(30);
+
     private ProcessBuilder builder;
     private String homeDir;
     private String command;
     private List<String> commandLine;
     private String toolName;
+    private Duration timeout;
 
     /**
      * Initializes a tool with the given name and the given command.
@@ -54,12 +62,22 @@ public abstract class ToolRunner{
      */
     public int run(){
         int exitCode;
-        Process p;
+        Process p = null;
         try {
             logger.info("Running {} with command: {}", getToolName(), String.join(" ", commandLine));
             preProcess();
             p = builder.start();
-            exitCode = p.waitFor();
+            if (timeout == null) {
+                exitCode = p.waitFor();
+            } else if (p.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                exitCode = p.exitValue();
+            } else {
+                logger.error("{} did not complete within {} minutes.", getToolName(), timeout.toMinutes());
+                if (!p.destroyForcibly().waitFor(DESTROY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    logger.warn("{} did not terminate within {} seconds after being killed.", getToolName(), DESTROY_TIMEOUT.toSeconds());
+                }
+                return -1;
+            }
             if (exitCode == 0)
                 postProcess(p);
             logger.info("Completed {} with exit code {}.", getToolName(), exitCode);
@@ -69,12 +87,15 @@ public abstract class ToolRunner{
             exitCode = -1;
         } catch (InterruptedException e) {
             logger.error(e.getMessage());
+            if (p != null)
+                p.destroyForcibly();
+            Thread.currentThread().interrupt();
             exitCode = -1;
         }
         return exitCode;
     }
 
-    protected abstract void preProcess();
+    protected abstract void preProcess() throws IOException;
     protected abstract void postProcess(Process p) throws IOException;
 
     public ProcessBuilder getBuilder() {
@@ -86,6 +107,15 @@ public abstract class ToolRunner{
         this.builder.directory(new File(this.homeDir));
     }
 
+    /**
+     * Sets the maximum time the underlying process is allowed to run. Processes running longer are destroyed
+     * and their execution is considered failed.
+     * @param timeout the maximum running time, or null to wait for the process to complete.
+     */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
     public void inheritOutput(boolean showOutput){
         if (!showOutput) {
             this.builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
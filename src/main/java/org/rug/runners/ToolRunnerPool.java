@@ -0,0 +1,191 @@
+package org.rug.runners;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes a set of independent runners concurrently, such as the {@link ArcanRunner}s analysing the versions of
+ * a project. The number of runners executed at the same time and the heap that can be assigned to each of their
+ * processes are based on the cores and the physical memory of the machine. Runners that fail or do not complete
+ * within the timeout are retried, and the progress is logged as runners complete.
+ */
+public class ToolRunnerPool extends ToolRunner {
+
+    private final static Logger logger = LoggerFactory.getLogger(ToolRunnerPool.class);
+
+    /**
+     * The minimum heap size, in megabytes, to assign to every process.
+     */
+    public static final long MIN_HEAP_MB = 2 * 1024;
+
+    /**
+     * The fraction of the physical memory of the machine to assign to the processes.
+     */
+    public static final double MEMORY_FRACTION = 0.75d;
+
+    private final List<ToolRunner> runners = new ArrayList<>();
+    private final int concurrency;
+    private final long maxHeapMB;
+    private final Duration timeout;
+    private final int retries;
+
+    /**
+     * Initializes a pool whose concurrency is based on the cores and the physical memory of the machine.
+     * @param toolName the name of the tool executed by the runners.
+     * @param timeout the maximum running time of every runner, or null to wait for them to complete.
+     * @param retries the number of times a failed runner is executed again.
+     */
+    public ToolRunnerPool(String toolName, Duration timeout, int retries) {
+        this(toolName, 0, timeout, retries);
+    }
+
+    /**
+     * Initializes a pool executing the given number of runners concurrently.
+     * @param toolName the name of the tool executed by the runners.
+     * @param concurrency the number of runners to execute concurrently, or zero to base it on the cores and the
+     *                    physical memory of the machine.
+     * @param timeout the maximum running time of every runner, or null to wait for them to complete.
+     * @param retries the number of times a failed runner is executed again.
+     */
+    public ToolRunnerPool(String toolName, int concurrency, Duration timeout, int retries) {
+        this(toolName, concurrency, timeout, retries, Runtime.getRuntime().availableProcessors(), getPhysicalMemoryMB());
+    }
+
+    /**
+     * Initializes a pool for a machine with the given resources.
+     * @param toolName the name of the tool executed by the runners.
+     * @param concurrency the number of runners to execute concurrently, or zero to base it on the given resources.
+     * @param timeout the maximum running time of every runner, or null to wait for them to complete.
+     * @param retries the number of times a failed runner is executed again.
+     * @param cores the number of cores of the machine.
+     * @param physicalMemoryMB the physical memory of the machine in megabytes, or zero if unknown.
+     */
+    public ToolRunnerPool(String toolName, int concurrency, Duration timeout, int retries, int cores, long physicalMemoryMB) {
+        super(toolName, null);
+        if (physicalMemoryMB <= 0) {
+            this.concurrency = Math.max(1, concurrency);
+            this.maxHeapMB = ArcanRunner.DEFAULT_MAX_HEAP_MB;
+        } else {
+            var availableMB = (long) (physicalMemoryMB * MEMORY_FRACTION);
+            this.concurrency = concurrency > 0 ? concurrency
+                    : (int) Math.max(1, Math.min(cores, availableMB / MIN_HEAP_MB));
+            this.maxHeapMB = Math.max(MIN_HEAP_MB, Math.min(ArcanRunner.DEFAULT_MAX_HEAP_MB, availableMB / this.concurrency));
+        }
+        this.timeout = timeout;
+        this.retries = Math.max(0, retries);
+    }
+
+    /**
+     * Adds a runner to execute.
+     * @param runner the runner.
+     */
+    public void add(ToolRunner runner) {
+        runner.setTimeout(timeout);
+        runners.add(runner);
+    }
+
+    /**
+     * @return the number of runners executed concurrently.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the maximum heap size, in megabytes, to assign to the process of every runner.
+     */
+    public long getMaxHeapMB() {
+        return maxHeapMB;
+    }
+
+    /**
+     * Executes all the runners of this pool, retrying those that fail.
+     * @return zero if all the runners completed successfully, -1 otherwise.
+     */
+    @Override
+    public int run() {
+        if (runners.isEmpty()) {
+            return 0;
+        }
+        var threads = Math.min(concurrency, runners.size());
+        logger.info("Running {} {} processes, {} at a time, with a maximum heap of {} MB each.",
+                runners.size(), getToolName(), threads, maxHeapMB);
+        var completed = new AtomicInteger();
+        var failed = new AtomicInteger();
+        var tasks = new ArrayList<Callable<Integer>>();
+        for (var runner : runners) {
+            tasks.add(() -> {
+                int exitCode = runner.run();
+                for (int attempt = 1; exitCode != 0 && attempt <= retries && !Thread.currentThread().isInterrupted(); attempt++) {
+                    logger.warn("Retrying ({}/{}) {} after exit code {}.", attempt, retries, runner, exitCode);
+                    exitCode = runner.run();
+                }
+                if (exitCode != 0) {
+                    failed.incrementAndGet();
+                    logger.error("Could not complete {}.", runner);
+                }
+                logger.info("Completed {} of {} {} processes ({} failed).",
+                        completed.incrementAndGet(), runners.size(), getToolName(), failed.get());
+                return exitCode;
+            });
+        }
+
+        var executor = Executors.newFixedThreadPool(threads);
+        int exitCode = 0;
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                if (result.get() != 0) {
+                    exitCode = -1;
+                }
+            }
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage());
+            Thread.currentThread().interrupt();
+            exitCode = -1;
+        } catch (ExecutionException e) {
+            logger.error("Unexpected error while running {}: {}", getToolName(), e.getCause().getMessage());
+            exitCode = -1;
+        } finally {
+            executor.shutdownNow();
+        }
+        return exitCode;
+    }
+
+    @Override
+    protected void preProcess() {
+
+    }
+
+    @Override
+    protected void postProcess(Process p) throws IOException {
+
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s pool of %d runners", getToolName(), runners.size());
+    }
+
+    /**
+     * @return the physical memory of the machine in megabytes, or zero if it cannot be determined.
+     */
+    @SuppressWarnings("deprecation") // getTotalMemorySize() replaces it only from Java 14, while the target is Java 11
+    private static long getPhysicalMemoryMB() {
+        var bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getTotalPhysicalMemorySize() / (1024 * 1024);
+        }
+        return 0;
+    }
+}
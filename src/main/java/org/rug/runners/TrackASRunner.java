@@ -1,16 +1,30 @@
 package org.rug.runners;
 
+import org.rug.data.characteristics.CharacteristicsSelection;
 import org.rug.data.characteristics.ComponentCharacteristicSet;
+import org.rug.data.characteristics.ICharacteristic;
+import org.rug.data.characteristics.IComponentCharacteristic;
+import org.rug.data.characteristics.smells.PageRank;
+import org.rug.data.project.ArcanDependencyGraphParser;
 import org.rug.data.project.IProject;
 import org.rug.data.project.IVersion;
+import org.rug.data.project.StructuralFingerprint;
 import org.rug.data.smells.ArchitecturalSmell;
 import org.rug.persistence.*;
+import org.rug.statefulness.AnalysisResultCache;
 import org.rug.tracker.ASmellTracker;
 import org.rug.tracker.SimpleNameJaccardSimilarityLinker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Models the execution of the tracking tool.
@@ -22,18 +36,59 @@ public class TrackASRunner extends ToolRunner {
     private ASmellTracker tracker;
     private IProject project;
     private boolean trackNonConsecutiveVersions;
+    private File cacheDir;
+    private Set<String> selectedCharacteristics = Set.of();
+    private CharacteristicsSelection characteristicsSelection;
+    private StructuralFingerprint previousFingerprint;
+    private List<ArchitecturalSmell> previousSmells = List.of();
+    private String previousCacheKey;
+    private List<IVersion> restoredVersions = new ArrayList<>();
 
     public TrackASRunner(IProject project, boolean trackNonConsecutiveVersions) {
+        this(project, trackNonConsecutiveVersions, null);
+    }
+
+    /**
+     * Initializes a runner that restores the results of the versions analysed by previous executions from the
+     * given directory, and saves there the results of the versions it analyses.
+     * @param project the project to track.
+     * @param trackNonConsecutiveVersions whether to track smells across non consecutive versions.
+     * @param cacheDir the directory of the {@link AnalysisResultCache}, or null to always analyse every version.
+     */
+    public TrackASRunner(IProject project, boolean trackNonConsecutiveVersions, File cacheDir) {
         super("trackas", "");
         this.project = project;
         this.trackNonConsecutiveVersions = trackNonConsecutiveVersions;
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Selects characteristics to compute in addition to those required by the registered data generators.
+     * @param names the names of the characteristics.
+     */
+    public void setSelectedCharacteristics(Collection<String> names) {
+        this.selectedCharacteristics = Set.copyOf(names);
     }
 
     @Override
     public int run() {
         tracker = new ASmellTracker(new SimpleNameJaccardSimilarityLinker(), trackNonConsecutiveVersions);
 
-        var componentCharacteristics = new ComponentCharacteristicSet().getCharacteristicSet();
+        var allComponentCharacteristics = new ComponentCharacteristicSet().getCharacteristicSet();
+        var characteristics = new ArrayList<ICharacteristic>(allComponentCharacteristics);
+        for (var type : ArchitecturalSmell.Type.values()) {
+            characteristics.addAll(type.getCharacteristicsSet());
+        }
+        characteristicsSelection = CharacteristicsSelection.of(characteristics, PersistenceHub::isRequired, selectedCharacteristics);
+        var componentCharacteristics = characteristicsSelection.filter(allComponentCharacteristics);
+        logger.info("Computing characteristics: {}", characteristicsSelection);
+
+        var cache = cacheDir == null ? null :
+                new AnalysisResultCache(cacheDir, project.getProjectType(), componentCharacteristics, characteristicsSelection,
+                        ArcanDependencyGraphParser.getSmellTypes(), ArcanDependencyGraphParser.getSmellLevels());
+        PageRank.resetWarmStart();
+        previousCacheKey = "";
+        restoredVersions.clear();
 
         logger.info("Starting tracking architectural smells of {} for {} versions", project.getName(), project.numberOfVersions());
         logger.info("Tracking non consecutive versions: {}", trackNonConsecutiveVersions ? "yes" : "no");
@@ -42,10 +97,30 @@ public class TrackASRunner extends ToolRunner {
             logger.info("Tracking version {} (n. {} of {})", version.getVersionString(), index, project.numberOfVersions());
             List<ArchitecturalSmell> smells = project.getArchitecturalSmellsIn(version);
 
-            logger.debug("Computing component characteristics...");
-            componentCharacteristics.forEach(c -> c.calculate(version));
-            logger.debug("Computing smell characteristics...");
-            smells.forEach(ArchitecturalSmell::calculateCharacteristics);
+            var cacheKey = cache == null ? null : keyOf(cache, version);
+            var restoredFingerprint = cacheKey == null ? Optional.<StructuralFingerprint>empty() : cache.load(cacheKey, version, smells);
+            if (restoredFingerprint.isPresent()) {
+                logger.info("Restored the characteristics of version {} from previous results.", version.getVersionString());
+                previousFingerprint = restoredFingerprint.get();
+                previousSmells = smells;
+                restoredVersions.add(version);
+            } else {
+                var fingerprint = StructuralFingerprint.of(version.getGraph());
+                replayComponentCharacteristics(componentCharacteristics);
+
+                logger.debug("Computing component characteristics...");
+                componentCharacteristics.forEach(c -> c.calculate(version));
+                logger.debug("Computing smell characteristics...");
+                calculateSmellCharacteristics(smells, fingerprint);
+
+                if (cacheKey != null) {
+                    try {
+                        cache.save(cacheKey, version, smells, fingerprint);
+                    } catch (IOException e) {
+                        logger.warn("Could not save the results of version {}: {}", version.getVersionString(), e.getMessage());
+                    }
+                }
+            }
 
             logger.debug("Tracking smells...");
             tracker.track(smells, version);
@@ -65,6 +140,62 @@ public class TrackASRunner extends ToolRunner {
         return 0;
     }
 
+    /**
+     * Computes the key of the cached results of the given version, chained to the key of the previous version.
+     * @return the key, or null if the key cannot be computed.
+     */
+    private String keyOf(AnalysisResultCache cache, IVersion version){
+        try {
+            previousCacheKey = cache.keyOf(version, previousCacheKey);
+        } catch (IOException e) {
+            logger.warn("Could not compute the cache key of version {}: {}", version.getVersionString(), e.getMessage());
+            previousCacheKey = "";
+            return null;
+        }
+        return previousCacheKey;
+    }
+
+    /**
+     * Computes again the component characteristics of the versions whose results were restored, so that the
+     * characteristics that depend on the previous versions (e.g. the change metrics) find the same state
+     * they would have if no version was restored. The characteristics of the smells are not affected.
+     */
+    private void replayComponentCharacteristics(Set<IComponentCharacteristic> componentCharacteristics){
+        if (restoredVersions.isEmpty()) {
+            return;
+        }
+        logger.info("Computing again the component characteristics of {} restored versions.", restoredVersions.size());
+        for (var version : restoredVersions) {
+            componentCharacteristics.forEach(c -> c.calculate(version));
+            version.clearGraph();
+        }
+        restoredVersions.clear();
+    }
+
+    /**
+     * Calculates the characteristics of the given smells. If the structure of the current version is identical
+     * to the previous version's, the structural characteristics of each smell are copied from the smell with the same
+     * key in the previous version instead of being computed again.
+     * @param smells the smells of the current version.
+     * @param fingerprint the fingerprint of the current version, computed before any characteristic was calculated.
+     */
+    private void calculateSmellCharacteristics(List<ArchitecturalSmell> smells, StructuralFingerprint fingerprint){
+        boolean unchanged = fingerprint.equals(previousFingerprint);
+        if (unchanged) {
+            logger.info("Version is structurally identical to the previous one, reusing structural smell characteristics.");
+        }
+        var structurallyEqualSmells = new HashMap<String, ArchitecturalSmell>();
+        if (unchanged) {
+            previousSmells.forEach(smell -> structurallyEqualSmells.putIfAbsent(StructuralFingerprint.keyOf(smell), smell));
+        }
+        for (var smell : smells) {
+            smell.calculateCharacteristics(unchanged ? structurallyEqualSmells.get(StructuralFingerprint.keyOf(smell)) : null,
+                    characteristicsSelection);
+        }
+        previousFingerprint = fingerprint;
+        previousSmells = smells;
+    }
+
     @Override
     protected void preProcess() {}
 
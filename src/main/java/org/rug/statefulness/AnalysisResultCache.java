@@ -0,0 +1,273 @@
+package org.rug.statefulness;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.rug.data.characteristics.CharacteristicsSelection;
+import org.rug.data.characteristics.CharacteristicsTable;
+import org.rug.data.characteristics.IComponentCharacteristic;
+import org.rug.data.characteristics.ISmellCharacteristic;
+import org.rug.data.project.AbstractProject;
+import org.rug.data.project.IVersion;
+import org.rug.data.project.StructuralFingerprint;
+import org.rug.data.smells.ArchitecturalSmell;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the results of the analysis of every version (the parsed smells, the values of their characteristics and
+ * the component characteristics) in a compact binary file, so that subsequent executions on the same Arcan
+ * output can restore them instead of computing them again.
+ * The results of a version are identified by a key computed from the content of its GraphML file,
+ * the version of the characteristics computed, and the key of the previous version. The key is chained because some
+ * characteristics (e.g. the change metrics) depend on the history of the versions analysed before.
+ */
+public class AnalysisResultCache {
+
+    private final static Logger logger = LoggerFactory.getLogger(AnalysisResultCache.class);
+
+    /**
+     * The version of the cached results. Must be increased whenever the file format or the computation of
+     * a characteristic changes, so that the results computed by previous releases are no longer used.
+     */
+    public final static int CHARACTERISTICS_VERSION = 1;
+    private final static int MAGIC = 0x41535243;
+
+    private final static byte LONG_PROPERTY = 0;
+    private final static byte INTEGER_PROPERTY = 1;
+    private final static byte DOUBLE_PROPERTY = 2;
+    private final static byte BOOLEAN_PROPERTY = 3;
+    private final static byte STRING_PROPERTY = 4;
+
+    private final File dir;
+    private final List<String> componentProperties;
+    private final String signature;
+
+    public AnalysisResultCache(String dir, AbstractProject.Type projectType, Collection<IComponentCharacteristic> componentCharacteristics){
+        this(new File(dir), projectType, componentCharacteristics, CharacteristicsSelection.all(),
+                EnumSet.allOf(ArchitecturalSmell.Type.class), EnumSet.allOf(ArchitecturalSmell.Level.class));
+    }
+
+    /**
+     * Initializes a cache stored in the given directory.
+     * @param dir the directory containing the cached results.
+     * @param projectType the type of the project analysed.
+     * @param componentCharacteristics the component characteristics computed on every version, whose values
+     *                                 are saved in the cache.
+     * @param selection the selection of characteristics computed on every version.
+     * @param smellTypes the types of smell parsed from every version.
+     * @param smellLevels the levels of the smells parsed from every version.
+     */
+    public AnalysisResultCache(File dir, AbstractProject.Type projectType, Collection<IComponentCharacteristic> componentCharacteristics,
+                               CharacteristicsSelection selection, Set<ArchitecturalSmell.Type> smellTypes,
+                               Set<ArchitecturalSmell.Level> smellLevels){
+        if (!dir.exists()){
+            dir.mkdirs();
+        }
+        if (!dir.isDirectory()){
+            throw new IllegalArgumentException("Analysis cache directory must not be a file.");
+        }
+        this.dir = dir;
+        this.componentProperties = componentCharacteristics.stream().map(IComponentCharacteristic::getName)
+                .distinct().collect(Collectors.toList());
+        var smellCharacteristics = new TreeMap<String, List<String>>();
+        for (var type : ArchitecturalSmell.Type.values()){
+            smellCharacteristics.put(type.toString(), type.getCharacteristicsSet().stream()
+                    .filter(selection::isSelected).map(ISmellCharacteristic::getName).collect(Collectors.toList()));
+        }
+        this.signature = String.join("|", String.valueOf(CHARACTERISTICS_VERSION), projectType.toString(),
+                componentProperties.toString(), smellCharacteristics.toString(),
+                new TreeSet<>(smellTypes).toString(), new TreeSet<>(smellLevels).toString());
+    }
+
+    /**
+     * Computes the key of the results of the given version.
+     * @param version the version.
+     * @param previousKey the key of the previous version, or an empty string for the first version.
+     * @return the key.
+     * @throws IOException if the GraphML file of the version cannot be read.
+     */
+    public String keyOf(IVersion version, String previousKey) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(String.join("\n", signature, previousKey, version.getVersionString(),
+                String.valueOf(version.getVersionIndex()), "").getBytes(StandardCharsets.UTF_8));
+        try (var in = new DigestInputStream(new BufferedInputStream(Files.newInputStream(version.getGraphMLPath())), digest)) {
+            var buffer = new byte[1 << 16];
+            while (in.read(buffer) >= 0);
+        }
+        var key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Restores the results of the given version, if they are cached. The values of the component characteristics are
+     * saved into the graph of the version and the values of the smell characteristics into the given smells, only after
+     * the whole file was read successfully.
+     * @param key the key of the version, computed with {@link #keyOf(IVersion, String)}.
+     * @param version the version.
+     * @param smells the smells parsed from the graph of the version.
+     * @return the structural fingerprint of the version if the results were restored, an empty optional otherwise.
+     */
+    public Optional<StructuralFingerprint> load(String key, IVersion version, List<ArchitecturalSmell> smells){
+        var file = fileOf(key);
+        if (!file.toFile().isFile()) {
+            return Optional.empty();
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != CHARACTERISTICS_VERSION) {
+                return Optional.empty();
+            }
+            var fingerprint = StructuralFingerprint.valueOf(in.readUTF());
+            if (in.readInt() != smells.size()) {
+                logger.warn("Cached results of version {} do not match its smells.", version.getVersionString());
+                return Optional.empty();
+            }
+            for (var smell : smells) {
+                if (in.readLong() != smell.getId() || in.readByte() != smell.getType().ordinal()) {
+                    logger.warn("Cached results of version {} do not match its smells.", version.getVersionString());
+                    return Optional.empty();
+                }
+            }
+            // everything is read before the smells and the graph are modified, so that a corrupted file leaves no values
+            var characteristics = new CharacteristicsTable(smells.size());
+            for (int i = 0; i < smells.size(); i++) {
+                smells.get(i).readCharacteristics(in, characteristics, i);
+            }
+
+            var graph = version.getGraph();
+            var properties = new ArrayList<Map.Entry<Vertex, Map<String, Object>>>();
+            int vertices = in.readInt();
+            for (int i = 0; i < vertices; i++) {
+                var id = in.readUTF();
+                var iterator = graph.vertices(id);
+                if (!iterator.hasNext()) {
+                    throw new IOException(String.format("Vertex %s does not exist.", id));
+                }
+                var values = new HashMap<String, Object>();
+                int count = in.readShort();
+                for (int j = 0; j < count; j++) {
+                    values.put(in.readUTF(), readValue(in));
+                }
+                properties.add(Map.entry(iterator.next(), values));
+            }
+
+            for (int i = 0; i < smells.size(); i++) {
+                smells.get(i).restoreCharacteristics(characteristics, i);
+            }
+            properties.forEach(entry -> entry.getValue().forEach(entry.getKey()::property));
+            return Optional.of(fingerprint);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read cached results of version {}: {}", version.getVersionString(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the results of the given version, after all the characteristics were computed.
+     * @param key the key of the version, computed with {@link #keyOf(IVersion, String)}.
+     * @param version the version.
+     * @param smells the smells parsed from the graph of the version.
+     * @param fingerprint the structural fingerprint of the version.
+     * @throws IOException if the results cannot be written.
+     */
+    public void save(String key, IVersion version, List<ArchitecturalSmell> smells, StructuralFingerprint fingerprint) throws IOException {
+        var file = fileOf(key);
+        var temporaryFile = Files.createTempFile(dir.toPath(), key, ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(CHARACTERISTICS_VERSION);
+                out.writeUTF(fingerprint.toString());
+                out.writeInt(smells.size());
+                for (var smell : smells) {
+                    out.writeLong(smell.getId());
+                    out.writeByte(smell.getType().ordinal());
+                }
+                for (var smell : smells) {
+                    smell.writeCharacteristics(out);
+                }
+
+                var vertices = new ArrayList<Vertex>();
+                version.getGraph().vertices().forEachRemaining(v -> {
+                    if (componentProperties.stream().anyMatch(p -> v.property(p).isPresent()))
+                        vertices.add(v);
+                });
+                out.writeInt(vertices.size());
+                for (var vertex : vertices) {
+                    var properties = componentProperties.stream().filter(p -> vertex.property(p).isPresent())
+                            .collect(Collectors.toList());
+                    out.writeUTF(vertex.id().toString());
+                    out.writeShort(properties.size());
+                    for (var property : properties) {
+                        out.writeUTF(property);
+                        writeValue(out, vertex.value(property));
+                    }
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private Path fileOf(String key){
+        return Paths.get(dir.getAbsolutePath(), key + ".bin");
+    }
+
+    private static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value instanceof Long) {
+            out.writeByte(LONG_PROPERTY);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER_PROPERTY);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE_PROPERTY);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_PROPERTY);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_PROPERTY);
+            out.writeUTF((String) value);
+        } else {
+            throw new IOException(String.format("Cannot save values of type %s.", value.getClass().getSimpleName()));
+        }
+    }
+
+    private static Object readValue(DataInput in) throws IOException {
+        var type = in.readByte();
+        switch (type) {
+            case LONG_PROPERTY:
+                return in.readLong();
+            case INTEGER_PROPERTY:
+                return in.readInt();
+            case DOUBLE_PROPERTY:
+                return in.readDouble();
+            case BOOLEAN_PROPERTY:
+                return in.readBoolean();
+            case STRING_PROPERTY:
+                return in.readUTF();
+            default:
+                throw new IOException(String.format("Unknown type of value: %d.", type));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.rug.statefulness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Records the inputs analysed by Arcan (e.g. the JAR files of a version or the history of a git repository) together
+ * with the GraphML files produced from them, both identified by the hash of their content. Subsequent executions
+ * run Arcan again only on the inputs that changed, or whose output is missing or was modified since it was produced.
+ * The manifest is saved as a tab-separated text file within the Arcan output directory, and is rewritten every time
+ * an input is recorded, so that the inputs analysed before a crash are not analysed again.
+ */
+public class ArcanManifest {
+
+    private final static Logger logger = LoggerFactory.getLogger(ArcanManifest.class);
+
+    /**
+     * The name of the manifest file within the Arcan output directory.
+     */
+    public final static String FILE_NAME = "arcan-manifest.tsv";
+
+    private final Path dir;
+    private final Path file;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Loads the manifest of the given Arcan output directory. If no manifest exists or it cannot be read,
+     * the manifest is empty.
+     * @param dir the Arcan output directory.
+     */
+    public ArcanManifest(Path dir) {
+        this.dir = dir.toAbsolutePath();
+        this.file = this.dir.resolve(FILE_NAME);
+        if (Files.isRegularFile(file)) {
+            try {
+                for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    var fields = line.split("\t");
+                    if (fields.length < 2 || fields.length % 2 != 0) {
+                        continue;
+                    }
+                    var entry = new Entry(fields[1]);
+                    for (int i = 2; i < fields.length; i += 2) {
+                        entry.outputs.put(fields[i], fields[i + 1]);
+                    }
+                    entries.put(fields[0], entry);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not read the Arcan manifest {}: {}", file, e.getMessage());
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given input was analysed by a previous execution, and the files produced are still intact.
+     * @param input the name of the input.
+     * @param inputHash the hash of the content of the input, as computed by {@link #hashOf(Path...)}.
+     * @return true if the manifest records the input with the same hash, and all the outputs recorded exist
+     * with the same content, false otherwise.
+     */
+    public synchronized boolean isUpToDate(String input, String inputHash) {
+        var entry = entries.get(input);
+        if (entry == null || !entry.inputHash.equals(inputHash) || entry.outputs.isEmpty()) {
+            return false;
+        }
+        for (var output : entry.outputs.entrySet()) {
+            var path = dir.resolve(output.getKey());
+            try {
+                if (!Files.isRegularFile(path) || !hashOf(path).equals(output.getValue())) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the outputs produced by Arcan from the given input and saves the manifest.
+     * @param input the name of the input.
+     * @param inputHash the hash of the content of the input, as computed by {@link #hashOf(Path...)}.
+     * @param outputs the files produced from the input.
+     * @throws IOException if the outputs cannot be read or the manifest cannot be saved.
+     */
+    public synchronized void record(String input, String inputHash, Collection<Path> outputs) throws IOException {
+        var entry = new Entry(inputHash);
+        for (var output : outputs) {
+            entry.outputs.put(dir.relativize(output.toAbsolutePath()).toString(), hashOf(output));
+        }
+        entries.put(input, entry);
+        save();
+    }
+
+    private void save() throws IOException {
+        var lines = new ArrayList<String>();
+        entries.forEach((input, entry) -> {
+            var fields = new ArrayList<>(List.of(input, entry.inputHash));
+            entry.outputs.forEach((output, hash) -> {
+                fields.add(output);
+                fields.add(hash);
+            });
+            lines.add(String.join("\t", fields));
+        });
+        var temporaryFile = Files.createTempFile(dir, FILE_NAME, ".tmp");
+        try {
+            Files.write(temporaryFile, lines, StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Computes the hash of the content of the given files. Directories are hashed by the relative paths and
+     * the content of all the files they contain.
+     * @param paths the files or directories to hash.
+     * @return the hexadecimal SHA-256 hash of the content of the files.
+     * @throws IOException if the files cannot be read.
+     */
+    public static String hashOf(Path... paths) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        var buffer = new byte[1 << 16];
+        for (var path : paths) {
+            List<Path> files;
+            if (Files.isDirectory(path)) {
+                try (var walk = Files.walk(path)) {
+                    files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+            } else {
+                files = List.of(path);
+            }
+            for (var file : files) {
+                digest.update((path.relativize(file).toString() + "\n").getBytes(StandardCharsets.UTF_8));
+                try (var in = new DigestInputStream(new BufferedInputStream(Files.newInputStream(file)), digest)) {
+                    while (in.read(buffer) >= 0);
+                }
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Computes the hash of the given strings, such as the ids of the commits analysed.
+     * @param values the strings to hash.
+     * @return the hexadecimal SHA-256 hash of the strings.
+     */
+    public static String hashOf(String... values) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return toHex(digest.digest(String.join("\n", values).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        var hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static class Entry {
+        private final String inputHash;
+        private final Map<String, String> outputs = new LinkedHashMap<>();
+
+        private Entry(String inputHash) {
+            this.inputHash = inputHash;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.rug.simpletests;
+
+import com.beust.jcommander.JCommander;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.Analysis;
+import org.rug.args.Args;
+import org.rug.runners.ToolRunnerPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unitTests")
+public class AnalysisTest {
+
+    @Test
+    void testJarProjectWithoutArcanReadsExistingGraphs(@TempDir Path outputDir) throws IOException {
+        var arcanOutput = Files.createDirectories(outputDir.resolve("arcanOutput").resolve("antlr"));
+        for (var version : new String[]{"2.4.0", "2.5.0"}) {
+            var graphML = String.format("antlr-%s.graphml", version);
+            Files.copy(Paths.get("./test-data/output/arcanOutput/antlr", graphML), arcanOutput.resolve(graphML));
+        }
+
+        var args = new Args();
+        JCommander.newBuilder().addObject(args).build().parse("-p", "antlr", "-jar",
+                "-i", "./test-data/input/antlr", "-o", outputDir.toString(), "-dRT", "-nC");
+        var analysis = new Analysis(args);
+
+        assertTrue(analysis.getRunners().isEmpty());
+        var project = analysis.getProject();
+        assertEquals(arcanOutput.resolve("antlr-2.4.0.graphml").toAbsolutePath(),
+                project.getVersionWith(1).getGraphMLPath().toAbsolutePath());
+        assertEquals(arcanOutput.resolve("antlr-2.5.0.graphml").toAbsolutePath(),
+                project.getVersionWith(2).getGraphMLPath().toAbsolutePath());
+    }
+
+    @Test
+    void testJarProjectRunsArcanInPool(@TempDir Path outputDir) throws IOException {
+        var args = new Args();
+        JCommander.newBuilder().addObject(args).build().parse("-p", "antlr", "-jar",
+                "-i", "./test-data/input/antlr", "-o", outputDir.toString(), "-rA", "./test-data/jars/astracker-0.7.jar",
+                "-dRT", "-nC");
+        var analysis = new Analysis(args);
+
+        assertEquals(1, analysis.getRunners().size());
+        assertTrue(analysis.getRunners().get(0) instanceof ToolRunnerPool);
+    }
+}
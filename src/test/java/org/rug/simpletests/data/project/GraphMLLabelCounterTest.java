@@ -0,0 +1,31 @@
+package org.rug.simpletests.data.project;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.data.project.GraphMLLabelCounter;
+import org.rug.data.project.Version;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unitTests")
+public class GraphMLLabelCounterTest {
+
+    @Test
+    void countsSameLabelsAsGraph() throws IOException {
+        var files = List.of("./test-data/output/arcanOutput/antlr/antlr-3.3.graphml",
+                "./test-data/output/arcanOutput/ant/ant-1.8.4.graphml");
+        for (var file : files) {
+            var version = new Version(Paths.get(file));
+            version.setGraphMLPath(Paths.get(file));
+            var expected = version.getGraph().traversal().V().toList().stream()
+                    .collect(Collectors.groupingBy(v -> v.label(), Collectors.counting()));
+
+            assertEquals(expected, GraphMLLabelCounter.countVertexLabels(Paths.get(file)), file);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.rug.simpletests.data.project;
+
+import org.apache.tinkerpop.gremlin.process.traversal.IO;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.data.project.ParallelGraphMLReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unitTests")
+public class ParallelGraphMLReaderTest {
+
+    @Test
+    void readsSameGraphAsGraphMLReader() throws IOException {
+        var files = List.of("./test-data/output/arcanOutput/antlr/antlr-3.3.graphml",
+                "./test-data/output/arcanOutput/ant/ant-1.8.4.graphml");
+        for (var file : files) {
+            Graph expected = TinkerGraph.open();
+            expected.traversal().io(file).read().with(IO.reader, IO.graphml).iterate();
+
+            for (int partitions : new int[]{1, 4, 13}) {
+                Graph actual = TinkerGraph.open();
+                new ParallelGraphMLReader(partitions).readGraph(Paths.get(file), actual);
+
+                var message = String.format("%s with %d partitions", file, partitions);
+                assertEquals(describeVertices(expected), describeVertices(actual), message);
+                assertEquals(describeEdges(expected), describeEdges(actual), message);
+            }
+        }
+    }
+
+    @Test
+    void readsQuotedAttributesCommentsAndCData(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("quoted.graphml");
+        Files.writeString(file, "<?xml version='1.0' encoding='UTF-8'?>\n" +
+                "<!-- <graph><node id=\"fake\"/></graph> -->\n" +
+                "<graphml xmlns='http://graphml.graphdrawing.org/xmlns'>\n" +
+                "<key id='labelV' for='node' attr.name='labelV' attr.type='string'/>\n" +
+                "<key id='name' for='node' attr.name='name' attr.type='string'/>\n" +
+                "<key id='labelE' for='edge' attr.name='labelE' attr.type='string'/>\n" +
+                "<key id='Weight' for='edge' attr.name='Weight' attr.type='int'/>\n" +
+                "<graph id='G' edgedefault='directed'>\n" +
+                "<node id='1'><data key='labelV'>class</data><data key='name'><![CDATA[<node id=\"2\"> & </graph>]]></data></node>\n" +
+                "<!-- <edge id='fake' source='1' target='2'/> -->\n" +
+                "<node id=\"2\"><data key=\"labelV\">package</data><data key='name'>a'b&gt;\"c</data></node>\n" +
+                "<node id='3' attr='&gt;/'><data key='labelV'>class</data></node>\n" +
+                "<edge id='4' source='1' target='2'><data key='labelE'>belongsTo</data><data key='Weight'>2</data></edge>\n" +
+                "<edge id='5' source='3' target='2'><data key='labelE'>belongsTo</data></edge>\n" +
+                "</graph>\n</graphml>\n");
+
+        Graph expected = TinkerGraph.open();
+        expected.traversal().io(file.toString()).read().with(IO.reader, IO.graphml).iterate();
+        for (int partitions = 1; partitions <= 8; partitions++) {
+            Graph actual = TinkerGraph.open();
+            new ParallelGraphMLReader(partitions).readGraph(file, actual);
+            assertEquals(describeVertices(expected), describeVertices(actual), partitions + " partitions");
+            assertEquals(describeEdges(expected), describeEdges(actual), partitions + " partitions");
+        }
+    }
+
+    private List<String> describeVertices(Graph graph){
+        return graph.traversal().V().toList().stream()
+                .map(v -> String.format("%s %s %s out:%s in:%s", v.id(), v.label(), propertiesOf(v),
+                        adjacentIds(v, Direction.OUT), adjacentIds(v, Direction.IN)))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> describeEdges(Graph graph){
+        return graph.traversal().E().toList().stream()
+                .map(e -> String.format("%s %s %s->%s %s", e.id(), e.label(), e.outVertex().id(), e.inVertex().id(), propertiesOf(e)))
+                .collect(Collectors.toList());
+    }
+
+    private List<Object> adjacentIds(Vertex vertex, Direction direction){
+        return vertex.graph().traversal().V(vertex).toE(direction).id().toList();
+    }
+
+    private Map<String, Object> propertiesOf(Element element){
+        var properties = new HashMap<String, Object>();
+        element.properties().forEachRemaining(p -> properties.put(p.key(), p.value()));
+        return properties;
+    }
+}
@@ -0,0 +1,74 @@
+package org.rug.simpletests.data.project;
+
+import org.apache.tinkerpop.gremlin.process.traversal.IO;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.data.characteristics.ISmellCharacteristic;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.project.ArcanDependencyGraphParser;
+import org.rug.data.project.StructuralFingerprint;
+import org.rug.data.smells.ArchitecturalSmell;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@Tag("unitTests")
+public class StructuralFingerprintTest {
+
+    private final static String antlr33 = "./test-data/output/arcanOutput/antlr/antlr-3.3.graphml";
+    private final static String antlr34 = "./test-data/output/arcanOutput/antlr/antlr-3.4.graphml";
+
+    @Test
+    void fingerprintDependsOnlyOnStructure() {
+        var graph = read(antlr33);
+        var fingerprint = StructuralFingerprint.of(graph);
+        assertEquals(fingerprint, StructuralFingerprint.of(read(antlr33)));
+        assertNotEquals(fingerprint, StructuralFingerprint.of(read(antlr34)));
+
+        var smellKeys = ArcanDependencyGraphParser.getArchitecturalSmellsIn(graph).stream()
+                .map(StructuralFingerprint::keyOf).collect(Collectors.toSet());
+        var otherSmellKeys = ArcanDependencyGraphParser.getArchitecturalSmellsIn(read(antlr33)).stream()
+                .map(StructuralFingerprint::keyOf).collect(Collectors.toSet());
+        assertEquals(smellKeys, otherSmellKeys);
+
+        var v = graph.traversal().V().hasLabel("package").next();
+        v.property("name", v.value("name") + ".renamed");
+        assertNotEquals(fingerprint, StructuralFingerprint.of(graph));
+    }
+
+    @Test
+    void structuralCharacteristicsAreReused() {
+        var previousSmells = ArcanDependencyGraphParser.getArchitecturalSmellsIn(read(antlr33));
+        previousSmells.forEach(ArchitecturalSmell::calculateCharacteristics);
+        int index = IntStream.range(0, previousSmells.size())
+                .filter(i -> previousSmells.get(i).getNumericCharacteristic("numOfEdges").orElse(0) > 0)
+                .findFirst().orElseThrow();
+        var previous = previousSmells.get(index);
+
+        var graph = read(antlr33);
+        var smell = ArcanDependencyGraphParser.getArchitecturalSmellsIn(graph).get(index);
+        assertEquals(StructuralFingerprint.keyOf(previous), StructuralFingerprint.keyOf(smell));
+        graph.traversal().E().hasLabel(EdgeLabel.DEPENDSON.toString(), EdgeLabel.PACKAGEISAFFERENTOF.toString()).drop().iterate();
+
+        smell.calculateCharacteristics(previous);
+        var previousValues = previous.getCharacteristicsMap();
+        var reusedValues = smell.getCharacteristicsMap();
+        smell.getType().getCharacteristicsSet().stream().filter(ISmellCharacteristic::isStructural)
+                .forEach(c -> assertEquals(previousValues.get(c.getName()), reusedValues.get(c.getName()), c.getName()));
+        assertEquals(previous.getNumericCharacteristic("size"), smell.getNumericCharacteristic("size"));
+
+        smell.calculateCharacteristics();
+        assertNotEquals(previousValues, smell.getCharacteristicsMap());
+    }
+
+    private Graph read(String file){
+        Graph graph = TinkerGraph.open();
+        graph.traversal().io(file).read().with(IO.reader, IO.graphml).iterate();
+        return graph;
+    }
+}
@@ -14,8 +14,10 @@ import org.rug.data.smells.CDSmell;
 import org.rug.data.smells.CDSmellCPP;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.SortedMap;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.rug.simpletests.TestData.antlr;
@@ -35,6 +37,23 @@ public class ArcanDependencyGraphParserTest {
 	}
 
 
+	@Test
+	void smellFilter() {
+		var graph = antlr.getVersion("3.3").getGraph();
+		var allSmells = ArcanDependencyGraphParser.getArchitecturalSmellsIn(graph);
+		try {
+			ArcanDependencyGraphParser.setSmellFilter(EnumSet.of(Type.CD), EnumSet.of(ArchitecturalSmell.Level.PACKAGE));
+			var filteredSmells = ArcanDependencyGraphParser.getArchitecturalSmellsIn(graph);
+			assertFalse(filteredSmells.isEmpty());
+			assertTrue(filteredSmells.stream().allMatch(as -> as.getType() == Type.CD && as.getLevel() == ArchitecturalSmell.Level.PACKAGE));
+			assertEquals(allSmells.stream().filter(as -> as.getType() == Type.CD && as.getLevel() == ArchitecturalSmell.Level.PACKAGE)
+							.map(ArchitecturalSmell::getId).collect(Collectors.toSet()),
+					filteredSmells.stream().map(ArchitecturalSmell::getId).collect(Collectors.toSet()));
+		} finally {
+			ArcanDependencyGraphParser.resetSmellFilter();
+		}
+	}
+
 	void parseGraphMLCpp() {
 		Graph gr = TinkerGraph.open();
 		gr.traversal().io(".\\arcanCppOutput\\pure\\pure-1.0.0.0.graphml").read().with(IO.reader, IO.graphml).iterate();
@@ -0,0 +1,93 @@
+package org.rug.simpletests.data.smells;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.data.characteristics.comps.CHOMetricPackage;
+import org.rug.data.characteristics.comps.CarryOver;
+import org.rug.data.characteristics.comps.ChangeMetrics;
+import org.rug.data.characteristics.comps.JavaSourceCodeRetriever;
+import org.rug.data.characteristics.comps.NumberOfLinesOfCode;
+import org.rug.data.characteristics.comps.TACHMetricPackage;
+import org.rug.data.labels.VertexLabel;
+import org.rug.data.project.GitVersion;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTests")
+public class CarryOverTest {
+
+    @Test
+    void testUnchangedFilesAreCarriedOver(@TempDir Path dir) throws Exception {
+        var repository = dir.resolve("repo");
+        var sources = repository.resolve("src");
+        Files.createDirectories(sources.resolve("org/rug"));
+        Files.writeString(sources.resolve("org/rug/B.java"), "class B {\n}\n");
+        var graph = TinkerGraph.open();
+        graph.addVertex(T.label, VertexLabel.CLASS.toString(), "name", "org.rug.A", "ClassType", "SystemClass");
+        graph.addVertex(T.label, VertexLabel.CLASS.toString(), "name", "org.rug.B", "ClassType", "SystemClass");
+
+        var versions = new ArrayList<GitVersion>();
+        try (var git = Git.init().setDirectory(repository.toFile()).call()) {
+            for (int i = 0; i < 3; i++) {
+                Files.writeString(sources.resolve("org/rug/A.java"), "class A {\n" + "  int x;\n".repeat(i) + "}\n");
+                if (i == 2) {
+                    // a file with the same name, outside the source directory
+                    Files.writeString(repository.resolve("B.java"), "class B {}\n");
+                }
+                git.add().addFilepattern(".").call();
+                var commit = git.commit().setMessage("v" + i).setAuthor("a", "a@a").setCommitter("a", "a@a").call();
+                var graphML = dir.resolve(String.format("graph-%d-01_01_2020-%s.graphml", i + 1, commit.getName()));
+                graph.io(IoCore.graphml()).writeGraph(graphML.toString());
+                var version = new GitVersion(graphML, git.getRepository(), new JavaSourceCodeRetriever(sources));
+                version.setGraphMLPath(graphML);
+                versions.add(version);
+            }
+
+            var carryOver = new CarryOver<Long>();
+            var expectedB = new ArrayList<>(List.of(Optional.<Long>empty(), Optional.of(2L), Optional.<Long>empty()));
+            for (var version : versions) {
+                carryOver.nextVersion(version);
+                assertEquals(Optional.empty(), carryOver.get(classNamed(version, "org.rug.A")));
+                assertEquals(expectedB.remove(0), carryOver.get(classNamed(version, "org.rug.B")));
+                carryOver.put(classNamed(version, "org.rug.A"), 1L);
+                carryOver.put(classNamed(version, "org.rug.B"), 2L);
+            }
+
+            var linesOfCode = new NumberOfLinesOfCode();
+            var changes = new ChangeMetrics(ChangeMetrics.NAME);
+            versions.forEach(GitVersion::clearGraph);
+            for (int i = 0; i < versions.size(); i++) {
+                var version = versions.get(i);
+                linesOfCode.calculate(version);
+                changes.calculate(version);
+                assertEquals(2L + i, (long) classNamed(version, "org.rug.A").value(linesOfCode.getName()));
+                assertEquals(2L, (long) classNamed(version, "org.rug.B").value(linesOfCode.getName()));
+                if (i > 0) {
+                    var a = classNamed(version, "org.rug.A");
+                    assertEquals((long) i, (long) a.value(ChangeMetrics.NAME));
+                    assertTrue(a.<Boolean>value(CHOMetricPackage.NAME));
+                    var b = classNamed(version, "org.rug.B");
+                    assertEquals(0L, (long) b.value(ChangeMetrics.NAME));
+                    assertEquals(0L, (long) b.value(TACHMetricPackage.NAME));
+                    assertFalse(b.<Boolean>value(CHOMetricPackage.NAME));
+                }
+            }
+        }
+    }
+
+    private static Vertex classNamed(GitVersion version, String name) {
+        return version.getGraph().traversal().V().has("name", name).next();
+    }
+}
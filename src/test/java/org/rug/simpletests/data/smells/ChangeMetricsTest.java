@@ -2,15 +2,29 @@ package org.rug.simpletests.data.smells;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.TextP;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.eclipse.jgit.api.Git;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.data.characteristics.comps.CHOMetricPackage;
 import org.rug.data.characteristics.comps.ChangeMetrics;
+import org.rug.data.characteristics.comps.JavaSourceCodeRetriever;
 import org.rug.data.characteristics.comps.PCCCMetric;
+import org.rug.data.characteristics.comps.TACHMetricPackage;
 import org.rug.data.labels.VertexLabel;
 import org.rug.data.project.AbstractProject;
 import org.rug.data.project.GitProject;
+import org.rug.data.project.GitVersion;
+import org.rug.data.project.IVersion;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,4 +69,51 @@ public class ChangeMetricsTest {
                 .toSet()
                 .forEach(v -> System.out.println(String.format("%s -> %.2f", v.value("name"), v.<Double>value(PCCCMetric.NAME))));
     }
+
+    @Test
+    void testChangesBetweenCommits(@TempDir Path dir) throws Exception {
+        var sources = dir.resolve("repo").resolve("src");
+        var classFile = sources.resolve("org/rug/Main.java");
+        Files.createDirectories(classFile.getParent());
+        var graph = TinkerGraph.open();
+        graph.addVertex(T.label, VertexLabel.CLASS.toString(), "name", "org.rug.Main", "ClassType", "SystemClass");
+
+        var versions = new ArrayList<GitVersion>();
+        try (var git = Git.init().setDirectory(dir.resolve("repo").toFile()).call()) {
+            var contents = List.of("class Main {\n}\n", "class Main {\n  int x;\n}\n", "class Main {\n  long x;\n}\n");
+            for (int i = 0; i < contents.size(); i++) {
+                Files.writeString(classFile, contents.get(i));
+                git.add().addFilepattern(".").call();
+                var commit = git.commit().setMessage("v" + i).setAuthor("a", "a@a").setCommitter("a", "a@a").call();
+                var graphML = dir.resolve(String.format("graph-%d-01_01_2020-%s.graphml", i + 1, commit.getName()));
+                graph.io(IoCore.graphml()).writeGraph(graphML.toString());
+                var version = new GitVersion(graphML, git.getRepository(), new JavaSourceCodeRetriever(sources));
+                version.setGraphMLPath(graphML);
+                versions.add(version);
+            }
+
+            ChangeMetrics.setDiffCacheDir(dir.resolve("diffs"));
+            try {
+                for (int run = 0; run < 2; run++) {
+                    var changes = new ChangeMetrics(ChangeMetrics.NAME);
+                    versions.forEach(IVersion::clearGraph);
+                    versions.forEach(changes::calculate);
+
+                    var second = versions.get(1).getGraph().traversal().V().has("name", "org.rug.Main").next();
+                    assertEquals(1L, (long) second.value(ChangeMetrics.NAME));
+                    assertEquals(1L, (long) second.value(TACHMetricPackage.NAME));
+                    assertTrue(second.<Boolean>value(CHOMetricPackage.NAME));
+
+                    var third = versions.get(2).getGraph().traversal().V().has("name", "org.rug.Main").next();
+                    assertEquals(2L, (long) third.value(ChangeMetrics.NAME));
+                    assertEquals(2L, (long) third.value(TACHMetricPackage.NAME));
+                }
+                try (var files = Files.list(dir.resolve("diffs"))) {
+                    assertEquals(2, files.count());
+                }
+            } finally {
+                ChangeMetrics.setDiffCacheDir(null);
+            }
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package org.rug.simpletests.data.smells;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.data.characteristics.*;
+import org.rug.data.characteristics.comps.ChangeMetrics;
+import org.rug.data.characteristics.comps.NumberOfLinesOfCode;
+import org.rug.data.characteristics.comps.PCCCMetric;
+import org.rug.data.characteristics.smells.AverageNumOfChanges;
+import org.rug.data.characteristics.smells.PageRank;
+import org.rug.data.smells.ArchitecturalSmell;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.rug.simpletests.TestData.antlr;
+
+@Tag("unitTests")
+public class CharacteristicsSelectionTest {
+
+    @Test
+    void characteristicsAreUniqueByName() {
+        for (var type : ArchitecturalSmell.Type.values()) {
+            var names = type.getCharacteristicsSet().stream().map(ICharacteristic::getName).collect(Collectors.toList());
+            assertEquals(Set.copyOf(names).size(), names.size(), type.toString());
+        }
+    }
+
+    @Test
+    void dependenciesAreSelected() {
+        var characteristics = allCharacteristics();
+        var selection = CharacteristicsSelection.of(characteristics,
+                c -> c instanceof ISmellCharacteristic && !c.isGraphAnalysis(), Set.of());
+
+        assertTrue(selection.isSelected(new AverageNumOfChanges()));
+        assertTrue(selection.isSelected(new PCCCMetric(ChangeMetrics.NAME)));
+        assertTrue(selection.isSelected(new ChangeMetrics(ChangeMetrics.NAME)));
+        assertFalse(selection.isSelected(new NumberOfLinesOfCode()));
+        assertFalse(selection.isSelected(new PageRank()));
+
+        selection = CharacteristicsSelection.of(characteristics, c -> false, Set.of("pageRankMax"));
+        assertTrue(selection.isSelected(new PageRank()));
+        assertFalse(selection.isSelected(new AverageNumOfChanges()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CharacteristicsSelection.of(characteristics, c -> false, Set.of("unknown")));
+    }
+
+    @Test
+    void onlySelectedCharacteristicsAreComputed() {
+        var selection = CharacteristicsSelection.of(allCharacteristics(), c -> !c.isGraphAnalysis(), Set.of());
+        var smell = antlr.getArchitecturalSmellsIn("3.3").get(0);
+        smell.calculateCharacteristics(null, selection);
+
+        var characteristics = smell.getCharacteristicsMap();
+        assertFalse(characteristics.containsKey("pageRankMax"));
+        assertFalse(characteristics.containsKey("pageRankAvrg"));
+        assertTrue(characteristics.containsKey("size"));
+    }
+
+    private List<ICharacteristic> allCharacteristics() {
+        var characteristics = new ArrayList<ICharacteristic>(new ComponentCharacteristicSet().getCharacteristicSet());
+        for (var type : ArchitecturalSmell.Type.values()) {
+            characteristics.addAll(type.getCharacteristicsSet());
+        }
+        return characteristics;
+    }
+}
@@ -0,0 +1,54 @@
+package org.rug.simpletests.data.smells;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.data.characteristics.comps.CoChangeMatrix;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTests")
+public class CoChangeMatrixTest {
+
+    @Test
+    void testCoupling() {
+        var matrix = new CoChangeMatrix(1d, 10, 10);
+        matrix.update(Set.of("A", "B"));
+        matrix.update(Set.of("A", "B"));
+        matrix.update(Set.of("A", "C"));
+        matrix.update(Set.of("A"));
+
+        assertEquals(0.5d, matrix.getCoupling("A"), 1e-9);
+        assertEquals(1d, matrix.getCoupling("B"), 1e-9);
+        assertEquals(1d, matrix.getCoupling("C"), 1e-9);
+        assertEquals(0d, matrix.getCoupling("D"));
+
+        var decayed = new CoChangeMatrix(0.5d, 10, 10);
+        decayed.update(Set.of("A", "B"));
+        decayed.update(Set.of("A"));
+        assertEquals(0.5d / 1.5d, decayed.getCoupling("A"), 1e-9);
+    }
+
+    @Test
+    void testBoundedPartners() {
+        var matrix = new CoChangeMatrix(0.9d, 3, 10);
+        matrix.update(Set.of("A", "B"));
+        matrix.update(Set.of("A", "B"));
+        for (int i = 0; i < 50; i++) {
+            matrix.update(Set.of("A", "P" + i));
+        }
+        var partners = matrix.getPartners("A");
+        assertEquals(3, partners.size());
+        assertTrue(partners.contains("P49"));
+        assertFalse(partners.contains("B"));
+
+        var large = IntStream.range(0, 11).mapToObj(i -> "L" + i).collect(Collectors.toSet());
+        matrix.update(large);
+        assertEquals(List.of(), matrix.getPartners("L0"));
+        assertEquals(0d, matrix.getCoupling("L0"));
+    }
+}
@@ -0,0 +1,40 @@
+package org.rug.simpletests.data.smells;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.data.characteristics.comps.ContainmentRollUp;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.labels.VertexLabel;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.rug.simpletests.TestData.antlr;
+
+@Tag("unitTests")
+public class ContainmentRollUpTest {
+
+    @Test
+    void rollUpMatchesTraversals() {
+        var graph = antlr.getVersion("3.2").getGraph();
+        var g = graph.traversal();
+        g.V().hasLabel(P.within(VertexLabel.getFilesStrings())).forEachRemaining(v -> {
+            v.property("rollUpTestValue", (long) v.id().hashCode() % 7);
+            v.property("rollUpTestFlag", v.id().hashCode() % 5 == 0);
+        });
+
+        var components = g.V().hasLabel(P.within(VertexLabel.getComponentStrings())).toList();
+        assertFalse(components.isEmpty());
+        for (var component : components) {
+            assertEquals((long) g.V(component).in(EdgeLabel.BELONGSTO.toString()).count().next(),
+                    ContainmentRollUp.count(component));
+            var files = g.V(component).in(EdgeLabel.BELONGSTO.toString())
+                    .hasLabel(P.within(VertexLabel.getFilesStrings()));
+            assertEquals(files.asAdmin().clone().<Long>values("rollUpTestValue").toStream().mapToLong(Long::longValue).sum(),
+                    ContainmentRollUp.sumOfFiles(component, "rollUpTestValue"));
+            assertEquals(files.asAdmin().clone().<Boolean>values("rollUpTestFlag").toStream().anyMatch(b -> b),
+                    ContainmentRollUp.anyOfFiles(component, "rollUpTestFlag"));
+        }
+
+        g.V().has("rollUpTestValue").properties("rollUpTestValue", "rollUpTestFlag").drop().iterate();
+    }
+}
@@ -0,0 +1,91 @@
+package org.rug.simpletests.data.smells;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.data.characteristics.comps.GitSourceTree;
+import org.rug.data.characteristics.comps.JavaSourceCodeRetriever;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unitTests")
+public class GitSourceTreeTest {
+
+    @Test
+    void testSourceIsReadFromCommit(@TempDir Path dir) throws Exception {
+        var sources = dir.resolve("src");
+        var classFile = sources.resolve("org/rug/Main.java");
+        Files.createDirectories(classFile.getParent());
+        Files.writeString(classFile, "class Main {}\n");
+        Files.writeString(dir.resolve("README"), "readme\n");
+
+        try (var git = Git.init().setDirectory(dir.toFile()).call()) {
+            git.add().addFilepattern(".").call();
+            var commit = git.commit().setMessage("first").setAuthor("a", "a@a").setCommitter("a", "a@a").call();
+            Files.writeString(classFile, "class Main { int x; }\n");
+            Files.writeString(sources.resolve("Untracked.java"), "class Untracked {}\n");
+
+            var tree = new GitSourceTree(git.getRepository(), commit.getId(), sources);
+            var files = new ArrayList<Path>();
+            tree.forEachFile(files::add);
+            assertEquals(List.of(classFile), files);
+
+            var retriever = new JavaSourceCodeRetriever(sources);
+            retriever.setSourceTree(tree);
+            assertEquals("class Main {}\n", retriever.getSource("org.rug.Main", ".java"));
+            assertEquals("", retriever.getSource("Untracked", ".java"));
+        }
+    }
+
+    @Test
+    void testListingFollowsChangedFiles(@TempDir Path dir) throws Exception {
+        var sources = dir.resolve("src");
+        Files.createDirectories(sources.resolve("a"));
+        Files.writeString(sources.resolve("a/A.java"), "class A {}\n");
+        Files.writeString(sources.resolve("B.java"), "class B {}\n");
+        Files.writeString(sources.resolve("C.java"), "class C {}\n");
+
+        try (var git = Git.init().setDirectory(dir.toFile()).call()) {
+            git.add().addFilepattern(".").call();
+            var first = git.commit().setMessage("first").setAuthor("a", "a@a").setCommitter("a", "a@a").call();
+
+            Files.writeString(sources.resolve("a/A.java"), "class A { int x; }\n");
+            Files.delete(sources.resolve("B.java"));
+            Files.delete(sources.resolve("C.java"));
+            git.add().setUpdate(true).addFilepattern(".").call();
+            Files.createDirectories(sources.resolve("C.java"));
+            Files.writeString(sources.resolve("C.java/D.java"), "class D {}\n");
+            Files.writeString(dir.resolve("README"), "readme\n");
+            git.add().addFilepattern(".").call();
+            var second = git.commit().setMessage("second").setAuthor("a", "a@a").setCommitter("a", "a@a").call();
+
+            var expected = new HashMap<Path, String>();
+            var firstTree = new GitSourceTree(git.getRepository(), first.getId(), sources);
+            firstTree.forEachFile(file -> expected.put(file, ""));
+            assertEquals(Set.of(sources.resolve("a/A.java"), sources.resolve("B.java"), sources.resolve("C.java")),
+                    expected.keySet());
+
+            for (var commit : List.of(second, first, second)) {
+                var tree = new GitSourceTree(git.getRepository(), commit.getId(), sources);
+                var files = new HashSet<Path>();
+                tree.forEachFile(files::add);
+                if (commit == first) {
+                    assertEquals(expected.keySet(), files);
+                    assertEquals("class A {}\n", tree.readString(sources.resolve("a/A.java")));
+                } else {
+                    assertEquals(Set.of(sources.resolve("a/A.java"), sources.resolve("C.java/D.java")), files);
+                    assertEquals("class A { int x; }\n", tree.readString(sources.resolve("a/A.java")));
+                }
+            }
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package org.rug.simpletests.data.smells;
 
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.rug.data.characteristics.comps.JarSourceCodeRetriever;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 @Tag("unitTests")
 public class JarSourceCodeRetrieverTest {
@@ -19,5 +25,43 @@ public class JarSourceCodeRetrieverTest {
         var src = retriever.getSource("org.rug.data.characteristics.comps.JarClassSourceCodeRetrieval");
         assertFalse(src.isEmpty());
         assertTrue(src.contains(oracle));
+        assertTrue(src.endsWith("}\n\n")); // same lines as when CFR decompiles the whole JAR
+        assertEquals("", retriever.getSource("org.rug.NonExistingClass"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void decompiledClassesAreCached(@TempDir Path cacheDir) throws Exception {
+        var jar = new File("test-data/jars/astracker-0.7.jar").toPath();
+        var className = "org.rug.data.characteristics.comps.JarClassSourceCodeRetrieval";
+        JarSourceCodeRetriever.setDecompilationCacheDir(cacheDir);
+        try {
+            var src = new JarSourceCodeRetriever(jar).getSource(className);
+            try (var files = Files.list(cacheDir)) {
+                var cachedFiles = files.toArray(Path[]::new);
+                assertEquals(1, cachedFiles.length);
+                Files.writeString(cachedFiles[0], "cached");
+            }
+            assertEquals("cached", new JarSourceCodeRetriever(jar).getSource(className));
+            assertFalse(src.isEmpty());
+        } finally {
+            JarSourceCodeRetriever.setDecompilationCacheDir(null);
+        }
+    }
+
+    @Test
+    void prefetchDecompilesInParallel() {
+        var jar = new File("test-data/jars/astracker-0.7.jar").toPath();
+        var graph = TinkerGraph.open();
+        var vertices = Stream.of("org.rug.data.characteristics.comps.JarClassSourceCodeRetrieval",
+                "org.rug.persistence.TrackGraphGenerator", "org.rug.persistence.ComponentAffectedByGenerator",
+                "org.rug.NonExistingClass")
+                .map(name -> graph.addVertex(T.label, "class", "name", name))
+                .collect(Collectors.toList());
+        var retriever = new JarSourceCodeRetriever(jar);
+        retriever.prefetch(vertices);
+        for (var vertex : vertices) {
+            assertEquals(new JarSourceCodeRetriever(jar).getSource(vertex), retriever.getSource(vertex));
+        }
+        assertFalse(retriever.getSource(vertices.get(1)).isEmpty());
+    }
+}
@@ -8,7 +8,12 @@ import org.rug.data.characteristics.comps.JarSourceCodeRetriever;
 import org.rug.data.characteristics.comps.NumberOfLinesOfCode;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.rug.simpletests.TestData.antlr;
@@ -49,6 +54,27 @@ public class NumberOfLinesOfCodeTest {
 
     }
 
+    @Test
+    void testCountLOCMatchesPattern() {
+        var pattern = Pattern.compile("[^\\s*].*[\\n\\r]+");
+        var alphabet = new char[]{'a', ' ', '\t', '*', '/', '\n', '\r', '\f', '\u000B', '\u0085', '\u2028', '\u00e8'};
+        var random = new Random(42);
+        var samples = new ArrayList<>(List.of("", "a", "a\n", "\n\n", " * comment\n", " */\r\n", "x\u2028\n", "\u0085 \n"));
+        for (int i = 0; i < 2000; i++) {
+            var sample = new StringBuilder();
+            for (int j = random.nextInt(30); j > 0; j--) {
+                sample.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            samples.add(sample.toString());
+        }
+        for (var sample : samples) {
+            var matcher = pattern.matcher(sample);
+            long expected = 0;
+            while (matcher.find())
+                expected++;
+            assertEquals(expected, NumberOfLinesOfCode.countLOC(sample.getBytes(StandardCharsets.UTF_8)), sample);
+        }
+    }
 
     void testCalculateCPP(){
         var charLOC = new NumberOfLinesOfCode();
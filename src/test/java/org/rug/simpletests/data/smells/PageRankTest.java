@@ -1,8 +1,20 @@
 package org.rug.simpletests.data.smells;
 
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.jupiter.api.Test;
 import org.rug.data.characteristics.smells.PageRank;
+import org.rug.data.characteristics.smells.WeightedPageRank;
+import org.rug.data.labels.EdgeLabel;
+import org.rug.data.labels.VertexLabel;
 
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.rug.simpletests.TestData.antlr;
 import static org.rug.simpletests.TestData.pure;
@@ -25,4 +37,55 @@ public class PageRankTest {
             assertTrue(pageRank > 0);
         });
     }
+
+    @Test
+    void testWeightedPageRankMatchesExplodedGraph() throws ExecutionException, InterruptedException {
+        Graph weighted = TinkerGraph.open();
+        Graph exploded = TinkerGraph.open();
+        var names = new String[]{"a", "b", "c", "d", "e"};
+        int[][] edges = {{0, 1, 3}, {0, 2, 1}, {1, 2, 2}, {2, 0, 1}, {1, 3, 1}, {3, 4, 0}};
+        var weightedVertices = new Vertex[names.length];
+        var explodedVertices = new Vertex[names.length];
+        for (int i = 0; i < names.length; i++) {
+            weightedVertices[i] = weighted.addVertex(VertexLabel.CLASS.toString());
+            weightedVertices[i].property("name", names[i]);
+            explodedVertices[i] = exploded.addVertex(VertexLabel.CLASS.toString());
+            explodedVertices[i].property("name", names[i]);
+        }
+        for (var edge : edges) {
+            weightedVertices[edge[0]].addEdge(EdgeLabel.DEPENDSON.toString(), weightedVertices[edge[1]], "Weight", edge[2]);
+            for (int i = 0; i < edge[2]; i++) {
+                explodedVertices[edge[0]].addEdge(EdgeLabel.DEPENDSON.toString(), explodedVertices[edge[1]]);
+            }
+        }
+
+        var expected = exploded.compute().workers(1).program(PageRankVertexProgram.build().property("centrality")
+                .iterations(WeightedPageRank.MAX_ITERATIONS).edges(__.outE(EdgeLabel.DEPENDSON.toString()).asAdmin()).create(exploded))
+                .submit().get().graph();
+        var actual = new WeightedPageRank(weighted, EdgeLabel.DEPENDSON).compute();
+
+        assertEquals(names.length, actual.size());
+        actual.forEach((vertex, rank) -> {
+            double expectedRank = expected.traversal().V().has("name", vertex.<String>value("name")).<Double>values("centrality").next();
+            assertEquals(expectedRank, rank, 1e-12);
+        });
+    }
+
+    @Test
+    void testWarmStartedPageRank() {
+        var previousRanks = new WeightedPageRank(antlr.getVersionWith(1).getGraph(), EdgeLabel.DEPENDSON).compute();
+        var pageRank = new WeightedPageRank(antlr.getVersionWith(2).getGraph(), EdgeLabel.DEPENDSON);
+        var coldRanks = pageRank.compute();
+        var coldIterations = pageRank.getIterations();
+        assertTrue(coldIterations < WeightedPageRank.MAX_ITERATIONS);
+
+        var initialRanks = new HashMap<String, Double>();
+        previousRanks.forEach((vertex, rank) -> initialRanks.put(vertex.value("name"), rank));
+        var warmRanks = pageRank.compute(initialRanks);
+
+        assertTrue(pageRank.getIterations() < coldIterations);
+        // both runs stop within EPSILON * ALPHA / (1 - ALPHA) of the same fixed point
+        var tolerance = 2 * WeightedPageRank.EPSILON * WeightedPageRank.ALPHA / (1 - WeightedPageRank.ALPHA);
+        coldRanks.forEach((vertex, rank) -> assertEquals(rank, warmRanks.get(vertex), tolerance));
+    }
 }
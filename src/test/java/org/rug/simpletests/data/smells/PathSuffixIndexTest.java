@@ -0,0 +1,34 @@
+package org.rug.simpletests.data.smells;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.data.characteristics.comps.PathSuffixIndex;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unitTests")
+public class PathSuffixIndexTest {
+
+    @Test
+    void testFind() {
+        var index = new PathSuffixIndex<Path>();
+        for (var path : List.of(Paths.get("src", "a", "org", "rug", "Main.java"),
+                Paths.get("src", "b", "org", "rug", "Main.java"), Paths.get("src", "org", "Args.java"))) {
+            index.add(path, path);
+        }
+        assertEquals(3, index.size());
+
+        assertEquals(Optional.of(Paths.get("src", "a", "org", "rug", "Main.java")), index.find(Paths.get("Main.java")));
+        assertEquals(Optional.of(Paths.get("src", "b", "org", "rug", "Main.java")), index.find(Paths.get("b", "org", "rug", "Main.java")));
+        assertEquals(Optional.of(Paths.get("src", "org", "Args.java")), index.find(Paths.get("org", "Args.java")));
+        assertEquals(Optional.empty(), index.find(Paths.get("rug", "Args.java")));
+        assertEquals(Optional.empty(), index.find(Paths.get("ain.java")));
+        assertEquals(Optional.empty(), index.find(Paths.get("")));
+        assertEquals(Optional.empty(), index.find(Paths.get("org", "rug")));
+    }
+}
@@ -0,0 +1,97 @@
+package org.rug.simpletests.runners;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.rug.runners.ArcanRunner;
+import org.rug.runners.ToolRunner;
+import org.rug.runners.ToolRunnerPool;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("unitTests")
+public class ToolRunnerPoolTest {
+
+    @Test
+    void testResources() {
+        var pool = new ToolRunnerPool("arcan", 0, null, 0, 16, 32 * 1024);
+        assertEquals(12, pool.getConcurrency());
+        assertEquals(ToolRunnerPool.MIN_HEAP_MB, pool.getMaxHeapMB());
+
+        pool = new ToolRunnerPool("arcan", 0, null, 0, 2, 64 * 1024);
+        assertEquals(2, pool.getConcurrency());
+        assertEquals(ArcanRunner.DEFAULT_MAX_HEAP_MB, pool.getMaxHeapMB());
+
+        pool = new ToolRunnerPool("arcan", 4, null, 0, 16, 32 * 1024);
+        assertEquals(4, pool.getConcurrency());
+        assertEquals(6 * 1024, pool.getMaxHeapMB());
+
+        pool = new ToolRunnerPool("arcan", 0, null, 0, 16, 1024);
+        assertEquals(1, pool.getConcurrency());
+        assertEquals(ToolRunnerPool.MIN_HEAP_MB, pool.getMaxHeapMB());
+    }
+
+    @Test
+    void testRunnersAreRetriedConcurrently() {
+        var pool = new ToolRunnerPool("test", 2, null, 2, 2, 0);
+        var started = new CountDownLatch(2);
+        var attempts = new AtomicInteger();
+        pool.add(new TestRunner(() -> {
+            started.countDown();
+            return started.await(10, TimeUnit.SECONDS) ? 0 : 1;
+        }));
+        pool.add(new TestRunner(() -> {
+            started.countDown();
+            return attempts.incrementAndGet() < 3 ? 1 : 0;
+        }));
+        assertEquals(0, pool.run());
+        assertEquals(3, attempts.get());
+
+        var failing = new ToolRunnerPool("test", 2, null, 1, 2, 0);
+        var failures = new AtomicInteger();
+        failing.add(new TestRunner(() -> failures.incrementAndGet()));
+        assertEquals(-1, failing.run());
+        assertEquals(2, failures.get());
+    }
+
+    private interface ExitCode {
+        int get() throws InterruptedException;
+    }
+
+    private static class TestRunner extends ToolRunner {
+        private final ExitCode exitCode;
+
+        private TestRunner(ExitCode exitCode) {
+            super("test", null);
+            this.exitCode = exitCode;
+        }
+
+        @Override
+        public int run() {
+            try {
+                return exitCode.get();
+            } catch (InterruptedException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        protected void preProcess() {
+
+        }
+
+        @Override
+        protected void postProcess(Process p) throws IOException {
+
+        }
+
+        @Override
+        public String toString() {
+            return getToolName();
+        }
+    }
+}
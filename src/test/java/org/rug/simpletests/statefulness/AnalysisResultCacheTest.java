@@ -0,0 +1,88 @@
+package org.rug.simpletests.statefulness;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.data.characteristics.comps.NumberOfClassesInPackage;
+import org.rug.data.project.StructuralFingerprint;
+import org.rug.data.smells.ArchitecturalSmell;
+import org.rug.statefulness.AnalysisResultCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.rug.simpletests.TestData.antlr;
+
+@Tag("unitTests")
+public class AnalysisResultCacheTest {
+
+    @Test
+    void testSaveAndLoad(@TempDir Path dir) throws IOException {
+        var characteristic = new NumberOfClassesInPackage();
+        var cache = new AnalysisResultCache(dir.toString(), antlr.getProjectType(), List.of(characteristic));
+        var version = antlr.getVersionWith(2);
+        var key = cache.keyOf(version, "");
+
+        var smells = antlr.getArchitecturalSmellsIn(version);
+        var fingerprint = StructuralFingerprint.of(version.getGraph());
+        characteristic.calculate(version);
+        smells.forEach(ArchitecturalSmell::calculateCharacteristics);
+        var expectedSmells = smells.stream().map(ArchitecturalSmell::getCharacteristicsMap).collect(Collectors.toList());
+        var expectedComponents = new HashMap<Object, Object>();
+        version.getGraph().vertices().forEachRemaining(v -> expectedComponents.put(v.id(), v.property(characteristic.getName()).orElse(null)));
+        cache.save(key, version, smells, fingerprint);
+
+        version.clearGraph();
+        var restoredSmells = antlr.getArchitecturalSmellsIn(version);
+        assertEquals(Optional.of(fingerprint), cache.load(key, version, restoredSmells));
+        assertEquals(expectedSmells, restoredSmells.stream().map(ArchitecturalSmell::getCharacteristicsMap).collect(Collectors.toList()));
+        version.getGraph().vertices().forEachRemaining(v ->
+                assertEquals(expectedComponents.get(v.id()), v.property(characteristic.getName()).orElse(null)));
+
+        assertEquals(key, cache.keyOf(version, ""));
+        assertNotEquals(key, cache.keyOf(version, key));
+        assertNotEquals(key, cache.keyOf(antlr.getVersionWith(3), ""));
+        assertEquals(Optional.empty(), cache.load(cache.keyOf(version, key), version, restoredSmells));
+        version.clearGraph();
+    }
+
+    @Test
+    void testTruncatedFileIsNotRestored(@TempDir Path dir) throws IOException {
+        var characteristic = new NumberOfClassesInPackage();
+        var cache = new AnalysisResultCache(dir.toString(), antlr.getProjectType(), List.of(characteristic));
+        var version = antlr.getVersionWith(2);
+        var key = cache.keyOf(version, "");
+
+        var smells = antlr.getArchitecturalSmellsIn(version);
+        characteristic.calculate(version);
+        smells.forEach(ArchitecturalSmell::calculateCharacteristics);
+        // values that differ from those already in the GraphML file
+        version.getGraph().vertices().forEachRemaining(v -> {
+            if (v.property(characteristic.getName()).isPresent()) {
+                v.property(characteristic.getName(), -1);
+            }
+        });
+        cache.save(key, version, smells, StructuralFingerprint.of(version.getGraph()));
+
+        // the last component value is lost, after the smells and the first components were read
+        var file = dir.resolve(key + ".bin");
+        var content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 4));
+
+        version.clearGraph();
+        var restoredSmells = antlr.getArchitecturalSmellsIn(version);
+        assertEquals(Optional.empty(), cache.load(key, version, restoredSmells));
+        restoredSmells.forEach(smell -> assertTrue(smell.getCharacteristicsMap().isEmpty()));
+        version.getGraph().vertices().forEachRemaining(v -> assertNotEquals(-1, v.property(characteristic.getName()).orElse(null)));
+        version.clearGraph();
+    }
+}
@@ -0,0 +1,54 @@
+package org.rug.simpletests.statefulness;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rug.statefulness.ArcanManifest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unitTests")
+public class ArcanManifestTest {
+
+    @Test
+    void testSkipsOnlyIntactOutputs(@TempDir Path dir) throws IOException {
+        var jar = dir.resolve("project-1.0.jar");
+        Files.writeString(jar, "jar");
+        var graph = dir.resolve("project-1.0.graphml");
+        Files.writeString(graph, "<graphml/>");
+        var inputHash = ArcanManifest.hashOf(jar);
+
+        var manifest = new ArcanManifest(dir);
+        assertFalse(manifest.isUpToDate("project-1.0.jar", inputHash));
+        manifest.record("project-1.0.jar", inputHash, List.of(graph));
+        assertTrue(manifest.isUpToDate("project-1.0.jar", inputHash));
+
+        manifest = new ArcanManifest(dir);
+        assertTrue(manifest.isUpToDate("project-1.0.jar", inputHash));
+        Files.writeString(jar, "changed jar");
+        assertFalse(manifest.isUpToDate("project-1.0.jar", ArcanManifest.hashOf(jar)));
+
+        Files.writeString(graph, "<graphml");
+        assertFalse(manifest.isUpToDate("project-1.0.jar", inputHash));
+        Files.delete(graph);
+        assertFalse(manifest.isUpToDate("project-1.0.jar", inputHash));
+    }
+
+    @Test
+    void testDirectoryHash(@TempDir Path dir) throws IOException {
+        var version = dir.resolve("project-1.0");
+        Files.createDirectories(version.resolve("lib"));
+        Files.writeString(version.resolve("a.jar"), "a");
+        Files.writeString(version.resolve("lib/b.jar"), "b");
+        var hash = ArcanManifest.hashOf(version);
+        assertEquals(hash, ArcanManifest.hashOf(version));
+
+        Files.move(version.resolve("lib/b.jar"), version.resolve("b.jar"));
+        assertNotEquals(hash, ArcanManifest.hashOf(version));
+    }
+}